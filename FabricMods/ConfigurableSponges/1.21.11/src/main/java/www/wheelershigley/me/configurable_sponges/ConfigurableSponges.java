@@ -1,6 +1,8 @@
 package www.wheelershigley.me.configurable_sponges;
 
 import net.fabricmc.api.ModInitializer;
+import www.wheelershigley.me.configurable_sponges.absorption.AbsorptionScheduler;
+import www.wheelershigley.me.configurable_sponges.gamerules.GameRuleSnapshot;
 //import org.slf4j.Logger;
 //import org.slf4j.LoggerFactory;
 
@@ -12,5 +14,7 @@ public class ConfigurableSponges implements ModInitializer {
 
     @Override public void onInitialize() {
         registerGameRules();
+        GameRuleSnapshot.register();
+        AbsorptionScheduler.register();
     }
 }
@@ -0,0 +1,327 @@
+package www.wheelershigley.me.configurable_sponges.absorption;
+
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.registry.tag.FluidTags;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+
+/**
+ * A resumable version of {@link BlockPos#iterateRecursively} for a single sponge.
+ * Positions are visited in the same breadth-first order (so the drained blocks are the same), but the walk can be
+ * paused after any amount of work, and picked up again later.
+ * <p>
+ * Positions in chunks that are not loaded are not visited (which would load the chunk); they are kept, per chunk, and put back
+ * into the walk when their chunk is loaded again (see {@link AbsorptionScheduler}). Parity with the synchronous walk is lost when:
+ * <ul>
+ *     <li>the walk reaches its maximum of accepted blocks, as positions put back after a reload are visited after the rest;</li>
+ *     <li>a chunk is not loaded again within the scheduler's wait, or before the server stops (jobs are not saved);
+ *     its positions are then dropped.</li>
+ * </ul>
+ * <p>
+ * Drained liquid blocks (water, lava and powder snow, source or flowing) are not removed one at a time: they are collected
+ * per chunk section and written together at the end of each step, without neighbour updates. Only the blocks bordering the
+ * drained region are then updated.
+ */
+public class AbsorptionJob {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    //sync to clients (batched into one delta packet per chunk section), but leave neighbour and shape updates to flushDrains()
+    private static final int DRAIN_FLAGS = Block.NOTIFY_LISTENERS | Block.FORCE_STATE;
+    private static final int MAXIMUM_UPDATE_DEPTH = 512;
+
+    private final ServerWorld world;
+    private final BlockPos origin;
+    private final AbsorptionSettings settings;
+
+    private final LongArrayFIFOQueue positions = new LongArrayFIFOQueue();
+    private final IntArrayFIFOQueue depths = new IntArrayFIFOQueue();
+    private final LongOpenHashSet visited = new LongOpenHashSet();
+    private int accepted = 0;
+    private boolean finished = false;
+
+    //chunk -> positions (and their depths) the walk reached while the chunk was not loaded
+    private record Frontier(LongArrayList positions, IntArrayList depths) {}
+    private final Long2ObjectOpenHashMap<Frontier> unloadedFrontiers = new Long2ObjectOpenHashMap<>();
+    private final LongOpenHashSet unloadedPositions = new LongOpenHashSet();
+
+    // chunk section -> drained positions in that section, for the current step
+    private final Long2ObjectLinkedOpenHashMap<LongArrayList> pendingDrains = new Long2ObjectLinkedOpenHashMap<>();
+    //drained position -> the block it was, for the shell's neighbour updates
+    private final Long2ObjectOpenHashMap<Block> drainedThisStep = new Long2ObjectOpenHashMap<>();
+
+    public AbsorptionJob(ServerWorld world, BlockPos origin, AbsorptionSettings settings) {
+        this.world = world;
+        this.origin = origin.toImmutable();
+        this.settings = settings;
+
+        positions.enqueue( this.origin.asLong() );
+        depths.enqueue(0);
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return whether all that is left of the walk is in chunks that are not loaded
+     */
+    public boolean isWaiting() {
+        return !finished && positions.isEmpty() && !unloadedFrontiers.isEmpty();
+    }
+
+    public boolean isWaitingOn(long chunkPos) {
+        return unloadedFrontiers.containsKey(chunkPos);
+    }
+
+    /**
+     * Gives up on the positions in chunks that were not loaded again; the job is then finished.
+     */
+    public void abandon() {
+        unloadedFrontiers.clear();
+        unloadedPositions.clear();
+        finished = true;
+    }
+
+    private void defer(long packedPosition, int depth, long chunkPos) {
+        if( !unloadedPositions.add(packedPosition) ) {
+            return;
+        }
+        Frontier frontier = unloadedFrontiers.get(chunkPos);
+        if(frontier == null) {
+            frontier = new Frontier( new LongArrayList(), new IntArrayList() );
+            unloadedFrontiers.put(chunkPos, frontier);
+        }
+        frontier.positions().add(packedPosition);
+        frontier.depths().add(depth);
+    }
+
+    /**
+     * Puts the positions of chunks that are loaded again back into the walk.
+     */
+    private void resumeLoadedFrontiers() {
+        ObjectIterator< Long2ObjectMap.Entry<Frontier> > iterator = unloadedFrontiers.long2ObjectEntrySet().fastIterator();
+        while( iterator.hasNext() ) {
+            Long2ObjectMap.Entry<Frontier> entry = iterator.next();
+            long chunkPos = entry.getLongKey();
+            if( !world.getChunkManager().isChunkLoaded( ChunkPos.getPackedX(chunkPos), ChunkPos.getPackedZ(chunkPos) ) ) {
+                continue;
+            }
+
+            Frontier frontier = entry.getValue();
+            for(int index = 0; index < frontier.positions().size(); index++) {
+                long packedPosition = frontier.positions().getLong(index);
+                unloadedPositions.remove(packedPosition);
+                positions.enqueue(packedPosition);
+                depths.enqueue( frontier.depths().getInt(index) );
+            }
+            iterator.remove();
+        }
+    }
+
+    /**
+     * @return number of positions accepted so far (including the sponge itself)
+     */
+    public int getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * Continues the walk.
+     * <p>
+     * Work is counted as: one per position visited, one more per water plant removed (each is its own block update),
+     * and one per block given a neighbour update at the end of the step. Those last updates are only known once the step
+     * has drained its blocks, so a step may go over its budget by them.
+     *
+     * @param budget maximum work to do
+     * @return work done; less than `budget` only if the job finished, or is waiting on chunks that are not loaded
+     */
+    public int step(int budget) {
+        if( positions.isEmpty() && !unloadedFrontiers.isEmpty() ) {
+            resumeLoadedFrontiers();
+        }
+
+        int work = 0;
+        while(work < budget && !finished) {
+            if( positions.isEmpty() ) {
+                if( unloadedFrontiers.isEmpty() ) {
+                    finished = true;
+                }
+                break;
+            }
+
+            long packedPosition = positions.dequeueLong();
+            int depth = depths.dequeueInt();
+            if( visited.contains(packedPosition) ) {
+                continue;
+            }
+
+            int chunkX = ChunkSectionPos.getSectionCoord( BlockPos.unpackLongX(packedPosition) );
+            int chunkZ = ChunkSectionPos.getSectionCoord( BlockPos.unpackLongZ(packedPosition) );
+            if( !world.getChunkManager().isChunkLoaded(chunkX, chunkZ) ) {
+                //not visited (which would load the chunk), but kept until the chunk is loaded again
+                defer( packedPosition, depth, ChunkPos.toLong(chunkX, chunkZ) );
+                continue;
+            }
+            visited.add(packedPosition);
+            work++;
+
+            BlockPos currentPos = BlockPos.fromLong(packedPosition);
+            BlockPos.IterationState state = absorb(currentPos, packedPosition);
+            if(state == null) {
+                //a water plant was removed, with its own block update
+                work++;
+                state = BlockPos.IterationState.ACCEPT;
+            }
+            if(state == BlockPos.IterationState.SKIP) {
+                continue;
+            }
+            accepted++;
+            if( settings.maximumAccepted() <= accepted ) {
+                finished = true;
+                break;
+            }
+            if( depth < settings.depth() ) {
+                for(Direction direction : DIRECTIONS) {
+                    positions.enqueue( BlockPos.offset(packedPosition, direction) );
+                    depths.enqueue(depth + 1);
+                }
+            }
+        }
+
+        work += flushDrains();
+        return work;
+    }
+
+    private void queueDrain(long packedPosition, Block drainedBlock) {
+        long section = ChunkSectionPos.fromBlockPos(packedPosition);
+        LongArrayList sectionDrains = pendingDrains.get(section);
+        if(sectionDrains == null) {
+            sectionDrains = new LongArrayList();
+            pendingDrains.put(section, sectionDrains);
+        }
+        sectionDrains.add(packedPosition);
+        drainedThisStep.put(packedPosition, drainedBlock);
+    }
+
+    /**
+     * @return number of neighbour updates sent
+     */
+    private int flushDrains() {
+        if( pendingDrains.isEmpty() ) {
+            return 0;
+        }
+        int neighbourUpdates = 0;
+
+        //write every drained block, one chunk section at a time
+        BlockState air = Blocks.AIR.getDefaultState();
+        for( LongArrayList sectionDrains : pendingDrains.values() ) {
+            for(int index = 0; index < sectionDrains.size(); index++) {
+                world.setBlockState(
+                    BlockPos.fromLong( sectionDrains.getLong(index) ),
+                    air,
+                    DRAIN_FLAGS
+                );
+            }
+        }
+
+        //only the shell of the drained region gets neighbour (and shape) updates; the inside is all air now
+        for( LongArrayList sectionDrains : pendingDrains.values() ) {
+            for(int index = 0; index < sectionDrains.size(); index++) {
+                long packedPosition = sectionDrains.getLong(index);
+                Block drainedBlock = drainedThisStep.get(packedPosition);
+                BlockPos drainedPos = null;
+                for(Direction direction : DIRECTIONS) {
+                    long packedNeighbour = BlockPos.offset(packedPosition, direction);
+                    if( drainedThisStep.containsKey(packedNeighbour) ) {
+                        continue;
+                    }
+                    if(drainedPos == null) {
+                        drainedPos = BlockPos.fromLong(packedPosition);
+                    }
+                    //(neighbours may keep the position, e.g. in scheduled ticks, so it must be immutable)
+                    BlockPos neighbourPos = BlockPos.fromLong(packedNeighbour);
+                    //as World::setBlockState does, the update names the block that was removed, so that neighbouring fluids
+                    //schedule their fluid ticks and flow into the drained region
+                    world.updateNeighbor(neighbourPos, drainedBlock, null);
+                    neighbourUpdates++;
+                    world.replaceWithStateForNeighborUpdate(
+                        direction.getOpposite(),
+                        neighbourPos,
+                        drainedPos,
+                        air,
+                        Block.NOTIFY_ALL,
+                        MAXIMUM_UPDATE_DEPTH
+                    );
+                }
+            }
+        }
+
+        pendingDrains.clear();
+        drainedThisStep.clear();
+        return neighbourUpdates;
+    }
+
+    /**
+     * @return whether the walk continues through the position; null if it does, and a water plant was removed there
+     */
+    private BlockPos.IterationState absorb(BlockPos currentPos, long packedPosition) {
+        if( currentPos.equals(origin) ) {
+            return BlockPos.IterationState.ACCEPT;
+        }
+
+        BlockState blockState = world.getBlockState(currentPos);
+        FluidState fluidState = world.getFluidState(currentPos);
+        Block blockAtPosition = blockState.getBlock();
+        boolean drainable =
+               ( settings.water()           && blockAtPosition.equals(Blocks.WATER)         )
+            || ( settings.lava()            && blockAtPosition.equals(Blocks.LAVA)          )
+            || ( settings.powderedSnow()    && blockAtPosition.equals(Blocks.POWDER_SNOW)   )
+        ;
+        if(
+               !fluidState.isIn(FluidTags.WATER)
+            && !blockAtPosition.equals(Blocks.LAVA)
+            && !blockAtPosition.equals(Blocks.POWDER_SNOW)
+        ) {
+            return BlockPos.IterationState.SKIP;
+        }
+
+        if(drainable) {
+            //fluid blocks (source or flowing) and powder snow become air either way, so they are batched rather than
+            //drained one by one through tryDrainFluid (which would update all their neighbours)
+            queueDrain(packedPosition, blockAtPosition);
+        } else {
+            if(
+                   !blockState.isOf(Blocks.KELP)
+                && !blockState.isOf(Blocks.KELP_PLANT)
+                && !blockState.isOf(Blocks.SEAGRASS)
+                && !blockState.isOf(Blocks.TALL_SEAGRASS)
+            ) {
+                return BlockPos.IterationState.SKIP;
+            }
+            if( !settings.water() ) {
+                return BlockPos.IterationState.SKIP;
+            }
+            BlockEntity blockEntity = blockState.hasBlockEntity() ? world.getBlockEntity(currentPos) : null;
+            Block.dropStacks(blockState, world, currentPos, blockEntity);
+            world.setBlockState(currentPos, Blocks.AIR.getDefaultState(), 3);
+            return null;
+        }
+
+        return BlockPos.IterationState.ACCEPT;
+    }
+}
@@ -0,0 +1,159 @@
+package www.wheelershigley.me.configurable_sponges.absorption;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import www.wheelershigley.me.configurable_sponges.gamerules.GameRuleSnapshot;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * Spreads sponge absorption over several ticks, so that one large sponge cannot stall the server.
+ * Each world may do at most `sponges_blocks_per_tick` work per tick (see {@link AbsorptionJob#step}), shared by all of its
+ * sponges (taking turns).
+ * <p>
+ * Jobs whose walk only has positions left in chunks that are not loaded wait (without being stepped) until one of those chunks
+ * is loaded again, for at most {@link #MAXIMUM_WAIT} ticks; after that, those positions are dropped.
+ */
+public class AbsorptionScheduler {
+    //the sponge and its 6 neighbours; enough to know whether a sponge absorbs anything at all
+    private static final int MINIMUM_FIRST_STEP = 1 + 6;
+    private static final int MAXIMUM_WAIT = 5 * 60 * 20; //5 minutes
+
+    private record WaitingJob(AbsorptionJob job, int since) {}
+
+    private static final HashMap< RegistryKey<World>, ArrayDeque<AbsorptionJob> > pendingJobs = new HashMap<>();
+    private static final HashMap< RegistryKey<World>, ArrayDeque<WaitingJob> > waitingJobs = new HashMap<>();
+    private static final HashMap< RegistryKey<World>, Integer > visitsThisTick = new HashMap<>();
+
+    public static void register() {
+        ServerTickEvents.END_WORLD_TICK.register(AbsorptionScheduler::tickJobs);
+        ServerChunkEvents.CHUNK_LOAD.register(
+            (world, chunk) -> resumeJobs( world, chunk.getPos().toLong() )
+        );
+        ServerLifecycleEvents.SERVER_STOPPED.register(
+            (server) -> {
+                pendingJobs.clear();
+                waitingJobs.clear();
+                visitsThisTick.clear();
+            }
+        );
+    }
+
+    private static void requeue(ServerWorld world, AbsorptionJob job) {
+        if( job.isFinished() ) {
+            return;
+        }
+        if( job.isWaiting() ) {
+            waitingJobs.computeIfAbsent(
+                world.getRegistryKey(),
+                (key) -> new ArrayDeque<>()
+            ).add(  new WaitingJob( job, world.getServer().getTicks() )  );
+        } else {
+            pendingJobs.computeIfAbsent(
+                world.getRegistryKey(),
+                (key) -> new ArrayDeque<>()
+            ).add(job);
+        }
+    }
+
+    /**
+     * Moves the jobs waiting on a chunk back into the queue, now that it is loaded.
+     */
+    private static void resumeJobs(ServerWorld world, long chunkPos) {
+        RegistryKey<World> worldKey = world.getRegistryKey();
+        ArrayDeque<WaitingJob> waiting = waitingJobs.get(worldKey);
+        if(waiting == null) {
+            return;
+        }
+
+        Iterator<WaitingJob> iterator = waiting.iterator();
+        while( iterator.hasNext() ) {
+            AbsorptionJob job = iterator.next().job();
+            if( job.isWaitingOn(chunkPos) ) {
+                iterator.remove();
+                pendingJobs.computeIfAbsent(
+                    worldKey,
+                    (key) -> new ArrayDeque<>()
+                ).add(job);
+            }
+        }
+        if( waiting.isEmpty() ) {
+            waitingJobs.remove(worldKey);
+        }
+    }
+
+    private static void expireJobs(ServerWorld world) {
+        RegistryKey<World> worldKey = world.getRegistryKey();
+        ArrayDeque<WaitingJob> waiting = waitingJobs.get(worldKey);
+        if(waiting == null) {
+            return;
+        }
+
+        //jobs are added in the order they start waiting, so only the front can have waited too long
+        int currentTick = world.getServer().getTicks();
+        while( !waiting.isEmpty() && MAXIMUM_WAIT <= currentTick - waiting.peek().since() ) {
+            waiting.poll().job().abandon();
+        }
+        if( waiting.isEmpty() ) {
+            waitingJobs.remove(worldKey);
+        }
+    }
+
+    /**
+     * Starts absorbing around a sponge. Enough of it is done immediately to tell whether anything is absorbed;
+     * the rest is continued over the following ticks.
+     *
+     * @return whether the sponge absorbed anything (and so should become wet/dry)
+     */
+    public static boolean absorb(ServerWorld world, BlockPos pos, AbsorptionSettings settings) {
+        if( !settings.absorbsAnything() ) {
+            return false;
+        }
+        AbsorptionJob job = new AbsorptionJob(world, pos, settings);
+
+        RegistryKey<World> worldKey = world.getRegistryKey();
+        int budget = Math.max(
+            MINIMUM_FIRST_STEP,
+            GameRuleSnapshot.of(world).blocksPerTick - visitsThisTick.getOrDefault(worldKey, 0)
+        );
+        //absorbing can update neighbouring (wet-)sponges, which start their own jobs, so the count is re-read after stepping
+        visitsThisTick.merge( worldKey, job.step(budget), Integer::sum );
+
+        requeue(world, job);
+        return 1 < job.getAccepted();
+    }
+
+    private static void tickJobs(ServerWorld world) {
+        RegistryKey<World> worldKey = world.getRegistryKey();
+        int spent = visitsThisTick.getOrDefault(worldKey, 0);
+        visitsThisTick.remove(worldKey);
+        expireJobs(world);
+
+        ArrayDeque<AbsorptionJob> jobs = pendingJobs.get(worldKey);
+        if(jobs == null) {
+            return;
+        }
+
+        //jobs started while stepping are added to the back of the queue, and wait for the next tick
+        int budget = GameRuleSnapshot.of(world).blocksPerTick - spent;
+        int jobCount = jobs.size();
+        for(int jobIndex = 0; jobIndex < jobCount && 0 < budget; jobIndex++) {
+            AbsorptionJob job = jobs.poll();
+
+            //jobs that finish (or start waiting) use less than their budget, and the next job is given the rest
+            budget -= job.step(budget);
+            requeue(world, job);
+        }
+
+        if( jobs.isEmpty() ) {
+            pendingJobs.remove(worldKey);
+        }
+    }
+}
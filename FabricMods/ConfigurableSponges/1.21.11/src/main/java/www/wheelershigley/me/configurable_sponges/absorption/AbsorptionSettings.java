@@ -0,0 +1,46 @@
+package www.wheelershigley.me.configurable_sponges.absorption;
+
+import net.minecraft.world.rule.GameRules;
+
+import static www.wheelershigley.me.configurable_sponges.gamerules.GameRuleRegistrator.*;
+import static www.wheelershigley.me.configurable_sponges.utils.MathFunctions.CenteredOctahedralNumber;
+
+/**
+ * What (and how far) a Sponge or Wet-Sponge absorbs.
+ *
+ * @param depth maximum distance (in steps between adjacent blocks) from the sponge
+ * @param maximumAccepted maximum number of positions accepted, including the sponge (the centered octahedral number of `depth`)
+ * @param water whether water (and water plants) are absorbed
+ * @param lava whether lava is absorbed
+ * @param powderedSnow whether powdered snow is absorbed
+ */
+public record AbsorptionSettings(int depth, int maximumAccepted, boolean water, boolean lava, boolean powderedSnow) {
+    public AbsorptionSettings(int depth, boolean water, boolean lava, boolean powderedSnow) {
+        this(depth, CenteredOctahedralNumber(depth), water, lava, powderedSnow);
+    }
+
+    /**
+     * @return false if nothing can ever be absorbed with these settings
+     */
+    public boolean absorbsAnything() {
+        return water || lava || powderedSnow;
+    }
+
+    public static AbsorptionSettings forSponge(GameRules gameRules) {
+        return new AbsorptionSettings(
+            gameRules.getValue(SPONGE_DEPTH),
+            gameRules.getValue(SPONGE_WATER),
+            gameRules.getValue(SPONGE_LAVA),
+            gameRules.getValue(SPONGE_POWDERED_SNOW)
+        );
+    }
+
+    public static AbsorptionSettings forWetSponge(GameRules gameRules) {
+        return new AbsorptionSettings(
+            gameRules.getValue(SPONGE_DEPTH),
+            gameRules.getValue(WET_SPONGE_WATER),
+            gameRules.getValue(WET_SPONGE_LAVA),
+            gameRules.getValue(WET_SPONGE_POWDERED_SNOW)
+        );
+    }
+}
@@ -8,7 +8,8 @@ import www.wheelershigley.me.configurable_sponges.ConfigurableSponges;
 
 public class GameRuleRegistrator {
     public static GameRule<Integer>
-        SPONGE_DEPTH
+        SPONGE_DEPTH,
+        SPONGE_BLOCKS_PER_TICK
     ;
     public static GameRule<Boolean>
         SPONGE_WATER,
@@ -57,6 +58,7 @@ public class GameRuleRegistrator {
     public static void registerGameRules() {
         //1171 is the maximum depth before the centered, octal number reaches an integer overflow
         SPONGE_DEPTH = register("sponges_range", 6, 0, 1171);
+        SPONGE_BLOCKS_PER_TICK = register("sponges_blocks_per_tick", 4096, 1, Integer.MAX_VALUE);
 
         SPONGE_WATER            = register("sponge_absorbs_water",          true);
         SPONGE_LAVA             = register("sponge_absorbs_lava",           false);
@@ -0,0 +1,51 @@
+package www.wheelershigley.me.configurable_sponges.gamerules;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.World;
+import net.minecraft.world.rule.GameRules;
+import www.wheelershigley.me.configurable_sponges.absorption.AbsorptionSettings;
+
+import java.util.HashMap;
+
+import static www.wheelershigley.me.configurable_sponges.gamerules.GameRuleRegistrator.SPONGE_BLOCKS_PER_TICK;
+
+/**
+ * Immutable copy of a world's sponge game rules.
+ * Sponge callbacks (especially Wet-Sponge neighbour updates) happen far more often than game rules change,
+ * so the rules are only read again after one of them has been changed.
+ */
+public class GameRuleSnapshot {
+    private static final HashMap< RegistryKey<World>, GameRuleSnapshot > snapshots = new HashMap<>();
+
+    public final AbsorptionSettings sponge;
+    public final AbsorptionSettings wetSponge;
+    public final int blocksPerTick;
+
+    private GameRuleSnapshot(GameRules gameRules) {
+        this.sponge = AbsorptionSettings.forSponge(gameRules);
+        this.wetSponge = AbsorptionSettings.forWetSponge(gameRules);
+        this.blocksPerTick = gameRules.getValue(SPONGE_BLOCKS_PER_TICK);
+    }
+
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STOPPED.register(
+            (server) -> invalidate()
+        );
+    }
+
+    public static GameRuleSnapshot of(ServerWorld world) {
+        return snapshots.computeIfAbsent(
+            world.getRegistryKey(),
+            (key) -> new GameRuleSnapshot( world.getGameRules() )
+        );
+    }
+
+    /**
+     * Forgets every snapshot; they are re-read from the game rules the next time they are needed.
+     */
+    public static void invalidate() {
+        snapshots.clear();
+    }
+}
@@ -0,0 +1,20 @@
+package www.wheelershigley.me.configurable_sponges.mixins;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.rule.GameRule;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import www.wheelershigley.me.configurable_sponges.gamerules.GameRuleSnapshot;
+
+@Mixin(MinecraftServer.class)
+public abstract class GameRuleUpdateMixin {
+    @Inject(
+        method = "onGameRuleUpdated",
+        at = @At("HEAD")
+    )
+    public <T> void onGameRuleUpdated(GameRule<T> gameRule, T object, CallbackInfo ci) {
+        GameRuleSnapshot.invalidate();
+    }
+}
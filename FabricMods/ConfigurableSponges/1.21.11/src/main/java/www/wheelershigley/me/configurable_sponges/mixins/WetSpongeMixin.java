@@ -1,26 +1,19 @@
 package www.wheelershigley.me.configurable_sponges.mixins;
 
 import net.minecraft.block.*;
-import net.minecraft.block.entity.BlockEntity;
-import net.minecraft.entity.LivingEntity;
-import net.minecraft.fluid.FluidState;
-import net.minecraft.registry.tag.FluidTags;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Direction;
 import net.minecraft.world.World;
 import net.minecraft.world.block.WireOrientation;
-import net.minecraft.world.rule.GameRules;
 import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
-
-import static www.wheelershigley.me.configurable_sponges.utils.MathFunctions.CenteredOctahedralNumber;
-import static www.wheelershigley.me.configurable_sponges.gamerules.GameRuleRegistrator.*;
+import www.wheelershigley.me.configurable_sponges.absorption.AbsorptionScheduler;
+import www.wheelershigley.me.configurable_sponges.gamerules.GameRuleSnapshot;
 
 @Mixin(WetSpongeBlock.class)
 public abstract class WetSpongeMixin extends Block {
@@ -28,8 +21,6 @@ public abstract class WetSpongeMixin extends Block {
         super(settings);
     }
 
-    private static final Direction[] DIRECTIONS = Direction.values();
-
     protected void neighborUpdate(BlockState state, World world, BlockPos pos, Block sourceBlock, @Nullable WireOrientation wireOrientation, boolean notify) {
         this.update(world, pos);
         super.neighborUpdate(state, world, pos, sourceBlock, wireOrientation, notify);
@@ -64,83 +55,10 @@ public abstract class WetSpongeMixin extends Block {
             return false;
         }
 
-        GameRules gameRules = ( (ServerWorld)world ).getGameRules();
-        final int       DEPTH           = gameRules.getValue(SPONGE_DEPTH               );
-        final boolean   WATER           = gameRules.getValue(WET_SPONGE_WATER           );
-        final boolean   LAVA            = gameRules.getValue(WET_SPONGE_LAVA            );
-        final boolean   POWDERED_SNOW   = gameRules.getValue(WET_SPONGE_POWDERED_SNOW   );
-
-        return 1 < BlockPos.iterateRecursively(
+        return AbsorptionScheduler.absorb(
+            (ServerWorld)world,
             pos,
-            DEPTH,
-            CenteredOctahedralNumber(DEPTH),
-            (currentPos, queuer) -> {
-                for(Direction direction : DIRECTIONS) {
-                    queuer.accept( currentPos.offset(direction) );
-                }
-            },
-            (currentPos) -> {
-                if( currentPos.equals(pos) ) {
-                    return BlockPos.IterationState.ACCEPT;
-                } else {
-                    BlockState blockState = world.getBlockState(currentPos);
-                    FluidState fluidState = world.getFluidState(currentPos);
-                    Block blockAtPosition = blockState.getBlock();
-                    boolean drainable =
-                           ( WATER          && blockAtPosition.equals(Blocks.WATER)         )
-                        || ( LAVA           && blockAtPosition.equals(Blocks.LAVA)          )
-                        || ( POWDERED_SNOW  && blockAtPosition.equals(Blocks.POWDER_SNOW)   )
-                    ;
-                    if(
-                           !fluidState.isIn(FluidTags.WATER)
-                        && !blockAtPosition.equals(Blocks.LAVA)
-                        && !blockAtPosition.equals(Blocks.POWDER_SNOW)
-                    ) {
-                        return BlockPos.IterationState.SKIP;
-                    } else {
-                        Block block = blockState.getBlock();
-                        if(drainable) {
-                            FluidDrainable fluidDrainable = (FluidDrainable)block;
-                            if(
-                                !fluidDrainable.tryDrainFluid(
-                                    (LivingEntity)null,
-                                    world,
-                                    currentPos,
-                                    blockState
-                                ).isEmpty()
-                            ) {
-                                return BlockPos.IterationState.ACCEPT;
-                            }
-                        }
-
-                        if(drainable) {
-                            world.setBlockState(
-                                currentPos,
-                                Blocks.AIR.getDefaultState(),
-                                3
-                            );
-                        } else {
-                            if(
-                                   !blockState.isOf(Blocks.KELP)
-                                && !blockState.isOf(Blocks.KELP_PLANT)
-                                && !blockState.isOf(Blocks.SEAGRASS)
-                                && !blockState.isOf(Blocks.TALL_SEAGRASS)
-                            ) {
-                                return BlockPos.IterationState.SKIP;
-                            }
-                            if(WATER) {
-                                BlockEntity blockEntity = blockState.hasBlockEntity() ? world.getBlockEntity(currentPos) : null;
-                                dropStacks(blockState, world, currentPos, blockEntity);
-                                world.setBlockState(currentPos, Blocks.AIR.getDefaultState(), 3);
-                            } else {
-                                return BlockPos.IterationState.SKIP;
-                            }
-                        }
-
-                        return BlockPos.IterationState.ACCEPT;
-                    }
-                }
-            }
+            GameRuleSnapshot.of( (ServerWorld)world ).wetSponge
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+package me.wheelershigley.www.magnetized;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import me.wheelershigley.www.magnetized.gamerules.GameRuleRegistrar;
+import me.wheelershigley.www.magnetized.helpers.ItemIndex;
+import me.wheelershigley.www.magnetized.helpers.MagnetEffects;
+import me.wheelershigley.www.magnetized.helpers.Physics;
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.component.DataComponentTypes;
+import net.minecraft.component.type.ItemEnchantmentsComponent;
+import net.minecraft.enchantment.Enchantment;
+import net.minecraft.enchantment.EnchantmentHelper;
+import net.minecraft.entity.EquipmentSlot;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.Box;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps track of every player that is currently acting as a magnet (sneaking, with "Magnetic" on their chest),
+ * so that only those players are processed each world tick rather than every loaded entity.
+ */
+public class MagnetRegistry {
+    private static final double RANGE_PER_LEVEL = 7.0/3.0; //meters
+
+    // world -> (player -> magnetic level)
+    private static final HashMap< RegistryKey<World>, HashMap<UUID, Integer> > activeMagnets = new HashMap<>();
+
+    public static void register() {
+        ServerEntityEvents.EQUIPMENT_CHANGE.register(
+            (livingEntity, equipmentSlot, previousStack, currentStack) -> {
+                if(
+                    equipmentSlot == EquipmentSlot.CHEST
+                    && livingEntity instanceof ServerPlayerEntity player
+                ) {
+                    update(player);
+                }
+            }
+        );
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register(
+            (player, origin, destination) -> update(player)
+        );
+        ServerPlayerEvents.AFTER_RESPAWN.register(
+            (oldPlayer, newPlayer, alive) -> update(newPlayer)
+        );
+        ServerPlayConnectionEvents.DISCONNECT.register(
+            (handler, server) -> remove( handler.getPlayer().getUuid() )
+        );
+        ServerLifecycleEvents.SERVER_STOPPED.register(
+            (server) -> activeMagnets.clear()
+        );
+
+        ServerTickEvents.END_WORLD_TICK.register(MagnetRegistry::tickMagnets);
+    }
+
+    /**
+     * Adds the player to (or removes the player from) the active magnets of their current world.
+     * Called whenever the player's sneaking state or chestplate changes.
+     *
+     * @param player player whose magnet state may have changed
+     */
+    public static void update(ServerPlayerEntity player) {
+        UUID playerID = player.getUuid();
+        remove(playerID);
+
+        if( !player.isSneaking() ) {
+            return;
+        }
+        int level = getBodyMagneticEnchantmentLevel(player);
+        if(level <= 0) {
+            return;
+        }
+
+        activeMagnets.computeIfAbsent(
+            player.getEntityWorld().getRegistryKey(),
+            (key) -> new HashMap<>()
+        ).put(playerID, level);
+    }
+
+    public static void remove(UUID playerID) {
+        Iterator< HashMap<UUID, Integer> > worldMagnets = activeMagnets.values().iterator();
+        while( worldMagnets.hasNext() ) {
+            HashMap<UUID, Integer> magnets = worldMagnets.next();
+            magnets.remove(playerID);
+            if( magnets.isEmpty() ) {
+                worldMagnets.remove();
+            }
+        }
+    }
+
+    private static void tickMagnets(ServerWorld world) {
+        HashMap<UUID, Integer> magnets = activeMagnets.get( world.getRegistryKey() );
+        if(magnets == null) {
+            return;
+        }
+
+        ArrayList<ServerPlayerEntity> players = new ArrayList<>( magnets.size() );
+        double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        Iterator< Map.Entry<UUID, Integer> > magnetIterator = magnets.entrySet().iterator();
+        while( magnetIterator.hasNext() ) {
+            Map.Entry<UUID, Integer> magnet = magnetIterator.next();
+
+            //Magnet must still be in this world
+            if(  !( world.getPlayerByUuid( magnet.getKey() ) instanceof ServerPlayerEntity player )  ) {
+                magnetIterator.remove();
+                continue;
+            }
+            players.add(player);
+
+            double half_cube_range = getHalfCubeRange( magnet.getValue() );
+            minY = Math.min(minY, player.getY() - half_cube_range);
+            maxY = Math.max(maxY, player.getY() + half_cube_range);
+        }
+        if( magnets.isEmpty() ) {
+            activeMagnets.remove( world.getRegistryKey() );
+            return;
+        }
+
+        //One index per world tick, shared by every magnet in it
+        ItemIndex itemIndex = new ItemIndex(world, minY, maxY);
+        ArrayList<ItemEntity> nearbyItems = new ArrayList<>();
+        MagnetEffects effects = new MagnetEffects(
+            world,
+            world.getGameRules().getValue(GameRuleRegistrar.MAGNET_EFFECT_BUDGET)
+        );
+        for(ServerPlayerEntity player : players) {
+            attractNearbyItems(
+                player,
+                magnets.get( player.getUuid() ),
+                itemIndex,
+                nearbyItems,
+                effects
+            );
+            nearbyItems.clear();
+            effects.flush();
+        }
+    }
+
+    private static double getHalfCubeRange(int level) {
+        return Math.sqrt(2) * (RANGE_PER_LEVEL * level)/2;
+    }
+
+    private static void attractNearbyItems(
+        ServerPlayerEntity player, int level,
+        ItemIndex itemIndex, List<ItemEntity> nearbyItems,
+        MagnetEffects effects
+    ) {
+        double range = RANGE_PER_LEVEL * level;
+
+        //Move nearby items
+        double half_cube_range = getHalfCubeRange(level);
+        itemIndex.getItems(
+            new Box(
+                player.getX() - half_cube_range, player.getY() - half_cube_range, player.getZ() - half_cube_range,
+                player.getX() + half_cube_range, player.getY() + half_cube_range, player.getZ() + half_cube_range
+            ),
+            nearbyItems
+        );
+        for(ItemEntity nearbyItem : nearbyItems) {
+            //Item must be in range (this check is done because the items in this list are within a nearby cube, not sphere)
+            if( range < player.getEntityPos().distanceTo( nearbyItem.getEntityPos() ) ) {
+                continue;
+            }
+            Physics.attractOneEntityToAnother(player, nearbyItem, level, effects);
+        }
+    }
+
+    private static int getBodyMagneticEnchantmentLevel(ServerPlayerEntity player) {
+        final ItemStack CHEST_PLATE = player.getEquippedStack(EquipmentSlot.CHEST);
+        if(
+            CHEST_PLATE.isEmpty()
+            || !CHEST_PLATE.contains(DataComponentTypes.ENCHANTMENTS)
+        ) {
+            return 0;
+        }
+        ItemEnchantmentsComponent enchantmentsComponent = EnchantmentHelper.getEnchantments(CHEST_PLATE);
+        if( enchantmentsComponent.isEmpty() ) {
+            return 0;
+        }
+
+        double level = 0;
+        for( Object2IntMap.Entry< RegistryEntry<Enchantment> > entry : enchantmentsComponent.getEnchantmentEntries() ) {
+            RegistryEntry<Enchantment> enchantEntry = entry.getKey();
+
+            if(  enchantEntry.matchesId( Magnetized.MAGNETIC.getValue() )  ) {
+                level = entry.getIntValue();
+                break;
+            }
+        }
+        return (int)Math.max(0, Math.min(level, 3) ); //must be between 0 and 3 (inclusive)
+    }
+}
@@ -1,5 +1,7 @@
 package me.wheelershigley.www.magnetized;
 
+import me.wheelershigley.www.magnetized.commands.Registrator;
+import me.wheelershigley.www.magnetized.gamerules.GameRuleRegistrar;
 import net.fabricmc.api.ModInitializer;
 import net.minecraft.enchantment.Enchantment;
 import net.minecraft.registry.RegistryKey;
@@ -17,6 +19,9 @@ public class Magnetized implements ModInitializer {
 
     @Override
     public void onInitialize() {
+        GameRuleRegistrar.registerGameRules();
         MagneticEnchantment.register();
+        MagnetRegistry.register();
+        Registrator.registerCommands();
     }
 }
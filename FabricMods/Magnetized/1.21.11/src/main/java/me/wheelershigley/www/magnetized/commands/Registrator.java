@@ -0,0 +1,62 @@
+package me.wheelershigley.www.magnetized.commands;
+
+import com.mojang.brigadier.Command;
+import me.wheelershigley.www.magnetized.Magnetized;
+import me.wheelershigley.www.magnetized.helpers.MagnetEffects;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+import java.util.function.Predicate;
+
+public class Registrator {
+    private static final Predicate<ServerCommandSource> isServerOrOperator = (source) -> {
+        if( !source.isExecutedByPlayer() ) {
+            return true;
+        }
+        ServerPlayerEntity sourcePlayer = source.getPlayer();
+        if(sourcePlayer == null) {
+            return false;
+        }
+
+        MinecraftServer server = sourcePlayer.getEntityWorld().getServer();
+        if(server == null) {
+            return false;
+        }
+        return server.getPlayerManager().isOperator(
+            sourcePlayer.getPlayerConfigEntry()
+        );
+    };
+
+    public static void registerCommands() {
+        Command<ServerCommandSource> statsCommand = (context) -> {
+            context.getSource().sendFeedback(
+                () -> Text.literal(
+                    Text.translatable(
+                        "magnetized.command.text.suppressed_packets",
+                        Long.toString( MagnetEffects.getSuppressedPackets() )
+                    ).getString()
+                ),
+                false
+            );
+            return 0;
+        };
+
+        CommandRegistrationCallback.EVENT.register(
+            (dispatcher, registryAccess, environment) -> {
+                dispatcher.register(
+                    CommandManager.literal(Magnetized.MOD_ID)
+                        .requires(isServerOrOperator)
+                        .then(
+                            CommandManager
+                                .literal("stats")
+                                .executes(statsCommand)
+                        )
+                );
+            }
+        );
+    }
+}
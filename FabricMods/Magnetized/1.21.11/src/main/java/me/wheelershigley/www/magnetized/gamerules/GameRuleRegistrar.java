@@ -0,0 +1,21 @@
+package me.wheelershigley.www.magnetized.gamerules;
+
+import me.wheelershigley.www.magnetized.Magnetized;
+import net.fabricmc.fabric.api.gamerule.v1.GameRuleBuilder;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.rule.GameRule;
+import net.minecraft.world.rule.GameRuleCategory;
+
+public class GameRuleRegistrar {
+    public static GameRule<Integer> MAGNET_EFFECT_BUDGET;
+    public static void registerGameRules() {
+        MAGNET_EFFECT_BUDGET = GameRuleBuilder
+            .forInteger(4)
+            .minValue(0)
+            .category(GameRuleCategory.PLAYER)
+            .buildAndRegister(
+                Identifier.of(Magnetized.MOD_ID, "magnet_effect_budget")
+            )
+        ;
+    }
+}
@@ -0,0 +1,83 @@
+package me.wheelershigley.www.magnetized.helpers;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.ItemEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chunk-bucketed snapshot of the item entities around a world's magnets, for a single tick.
+ * Each chunk column is only queried once (the first time any magnet asks for it), no matter how many magnets overlap it.
+ */
+public class ItemIndex {
+    //an item's bounding box can stick out of the chunk its position is in, so neighbouring chunks must be checked too
+    private static final double ITEM_MARGIN = 1.0; //meters
+
+    private final ServerWorld world;
+    private final double minY, maxY;
+    private final Long2ObjectOpenHashMap< List<ItemEntity> > buckets = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * @param world world to index
+     * @param minY lowest Y any query this tick will reach
+     * @param maxY highest Y any query this tick will reach
+     */
+    public ItemIndex(ServerWorld world, double minY, double maxY) {
+        this.world = world;
+        this.minY = minY - ITEM_MARGIN;
+        this.maxY = maxY + ITEM_MARGIN;
+    }
+
+    /**
+     * Same result as {@code world.getNonSpectatingEntities(ItemEntity.class, box)}, but backed by the shared buckets.
+     *
+     * @param box area to search
+     * @param results list to fill with every item whose bounding box intersects the area
+     */
+    public void getItems(Box box, List<ItemEntity> results) {
+        int minChunkX = ChunkSectionPos.getSectionCoord( MathHelper.floor(box.minX - ITEM_MARGIN) );
+        int maxChunkX = ChunkSectionPos.getSectionCoord( MathHelper.floor(box.maxX + ITEM_MARGIN) );
+        int minChunkZ = ChunkSectionPos.getSectionCoord( MathHelper.floor(box.minZ - ITEM_MARGIN) );
+        int maxChunkZ = ChunkSectionPos.getSectionCoord( MathHelper.floor(box.maxZ + ITEM_MARGIN) );
+
+        for(int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for(int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                for( ItemEntity item : getBucket(chunkX, chunkZ) ) {
+                    if( item.getBoundingBox().intersects(box) ) {
+                        results.add(item);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<ItemEntity> getBucket(int chunkX, int chunkZ) {
+        long key = ChunkPos.toLong(chunkX, chunkZ);
+        List<ItemEntity> bucket = buckets.get(key);
+        if(bucket != null) {
+            return bucket;
+        }
+
+        //only keep the items positioned in this chunk, so that each item lands in exactly one bucket
+        bucket = new ArrayList<>();
+        Box chunkBox = new Box(
+            ChunkSectionPos.getBlockCoord(chunkX), minY, ChunkSectionPos.getBlockCoord(chunkZ),
+            ChunkSectionPos.getBlockCoord(chunkX + 1), maxY, ChunkSectionPos.getBlockCoord(chunkZ + 1)
+        );
+        for( ItemEntity item : world.getNonSpectatingEntities(ItemEntity.class, chunkBox) ) {
+            ChunkPos itemChunk = item.getChunkPos();
+            if(itemChunk.x == chunkX && itemChunk.z == chunkZ) {
+                bucket.add(item);
+            }
+        }
+
+        buckets.put(key, bucket);
+        return bucket;
+    }
+}
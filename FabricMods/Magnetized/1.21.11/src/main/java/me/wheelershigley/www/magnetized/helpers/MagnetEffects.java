@@ -0,0 +1,97 @@
+package me.wheelershigley.www.magnetized.helpers;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.particle.ParticleTypes;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.sound.SoundCategory;
+import net.minecraft.sound.SoundEvents;
+
+/**
+ * Collects the spark/sound effects of a single magnet for one tick, and sends them as one particle packet and one sound.
+ * At most `budget` of the pulled items contribute to the effect; the rest are counted as suppressed.
+ */
+public class MagnetEffects {
+    private static final int PACKETS_PER_EFFECT = 2; //one particle packet, one sound packet
+
+    private static long suppressedPackets = 0;
+
+    private final ServerWorld world;
+    private final int budget;
+
+    private int rolled, emitted;
+    private double sumX, sumY, sumZ;
+    private double minX, minY, minZ, maxX, maxY, maxZ;
+
+    /**
+     * @param world world the magnet is in
+     * @param budget maximum number of pulled items which may contribute to the effects of a magnet, per tick
+     */
+    public MagnetEffects(ServerWorld world, int budget) {
+        this.world = world;
+        this.budget = budget;
+        reset();
+    }
+
+    /**
+     * Rolls the (1 in 16) chance for a pulled item to spark.
+     *
+     * @param dynamic item being pulled
+     */
+    public void roll(Entity dynamic) {
+        if( world.random.nextBetween(0, 15) != 0 ) {
+            return;
+        }
+        rolled++;
+        if(budget <= emitted) {
+            return;
+        }
+        emitted++;
+
+        double x = dynamic.getX(), y = dynamic.getBodyY(1.0), z = dynamic.getZ();
+        sumX += x; sumY += y; sumZ += z;
+        minX = Math.min(minX, x); minY = Math.min(minY, y); minZ = Math.min(minZ, z);
+        maxX = Math.max(maxX, x); maxY = Math.max(maxY, y); maxZ = Math.max(maxZ, z);
+    }
+
+    /**
+     * Sends the collected effects (if any), centered on the sparking items, then gets ready for the next magnet.
+     */
+    public void flush() {
+        if(0 < emitted) {
+            double centerX = sumX/emitted, centerY = sumY/emitted, centerZ = sumZ/emitted;
+            world.spawnParticles(
+                ParticleTypes.ELECTRIC_SPARK,
+                false, true,
+                centerX, centerY, centerZ,
+                emitted,
+                (maxX - minX)/2, (maxY - minY)/2, (maxZ - minZ)/2,
+                0.02
+            );
+            world.playSound(
+                null,
+                centerX, centerY, centerZ,
+                SoundEvents.BLOCK_AMETHYST_BLOCK_RESONATE,
+                SoundCategory.PLAYERS,
+                0.25f, 1.5f,
+                world.getRandom().nextLong()
+            );
+        }
+        suppressedPackets += PACKETS_PER_EFFECT * ( rolled - (0 < emitted ? 1L : 0L) );
+        reset();
+    }
+
+    private void reset() {
+        rolled = 0;
+        emitted = 0;
+        sumX = 0; sumY = 0; sumZ = 0;
+        minX = Double.POSITIVE_INFINITY; minY = Double.POSITIVE_INFINITY; minZ = Double.POSITIVE_INFINITY;
+        maxX = Double.NEGATIVE_INFINITY; maxY = Double.NEGATIVE_INFINITY; maxZ = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * @return number of particle and sound packets which would have been sent if every spark was sent individually, but were not
+     */
+    public static long getSuppressedPackets() {
+        return suppressedPackets;
+    }
+}
@@ -2,13 +2,7 @@ package me.wheelershigley.www.magnetized.helpers;
 
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
-import net.minecraft.particle.ParticleTypes;
-import net.minecraft.server.world.ServerWorld;
-import net.minecraft.sound.SoundCategory;
-import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.math.Box;
-import net.minecraft.util.math.Vec3d;
-import net.minecraft.world.World;
 
 public class Physics {
 
@@ -70,21 +64,6 @@ public class Physics {
          */
         return acceleration * time_change;
     }
-    public static Vec3d getVelocity(double speed, Vec3d direction) {
-        double distance = Math.abs( direction.distanceTo(Vec3d.ZERO) );
-        Vec3d normalized_direction = new Vec3d(
-            direction.x/distance,
-            direction.y/distance,
-            direction.z/distance
-        );
-
-        return new Vec3d(
-            speed * normalized_direction.x,
-            speed * normalized_direction.y,
-            speed * normalized_direction.z
-        );
-    }
-
     /**
      *
      * @param distance distance
@@ -99,66 +78,47 @@ public class Physics {
     }
 
     private static final double SPEED_MULTIPLIER_PER_LEVEL = 25_000_000;
-    private static int particle_frequency_counter = 0;
-    public static void attractOneEntityToAnother(Entity datum, Entity dynamic, int level) {
+    /**
+     * Pulls `dynamic` towards `datum`. Works entirely on primitives (no Vec3d per item), since it runs for every attracted item, every tick.
+     *
+     * @param datum entity doing the pulling (the magnet)
+     * @param dynamic entity being pulled
+     * @param level magnetic enchantment level
+     * @param effects the magnet's particle/sound batch for this tick
+     */
+    public static void attractOneEntityToAnother(Entity datum, Entity dynamic, int level, MagnetEffects effects) {
+        double directionX = datum.getX() - dynamic.getX();
+        double directionY = datum.getY() - dynamic.getY();
+        double directionZ = datum.getZ() - dynamic.getZ();
+        double distance = Math.sqrt(directionX*directionX + directionY*directionY + directionZ*directionZ);
+
         double speed; {
             double datumMass   = getMass(datum);
             double dynamicMass = getMass(dynamic);
 
-            double gravitational_force; {
-                double distance = dynamic.getEntityPos().distanceTo( datum.getEntityPos() );
-                gravitational_force = getAttraction(datumMass, dynamicMass, distance );
-            }
+            double gravitational_force = getAttraction(datumMass, dynamicMass, distance);
 
             double acceleration = getAcceleration(gravitational_force, dynamicMass);
             double seconds_per_tick = 1.0/datum.getEntityWorld().getTickManager().getTickRate();
             speed = getSpeed(acceleration, seconds_per_tick);
         }
 
-        Vec3d direction; {
-            Vec3d datumPosition = datum.getEntityPos();
-            Vec3d dynamicPosition = dynamic.getEntityPos();
-            direction = new Vec3d(
-                datumPosition.x - dynamicPosition.x,
-                datumPosition.y - dynamicPosition.y,
-                datumPosition.z - dynamicPosition.z
-            );
-        }
-
         /*fantasy*/ {
             //SPEED_MULTIPLIER is a fantasy addition to let the speeds be realistically observe-able, in-game
             speed *= SPEED_MULTIPLIER_PER_LEVEL * level;
-            speed *= fantasySlowDown(  datum.getEntityPos().distanceTo( dynamic.getEntityPos() )  );
+            speed *= fantasySlowDown(distance);
 
             //spawn particles and play sound
-            World world = dynamic.getEntityWorld();
-            if(
-                world instanceof ServerWorld
-                && world.random.nextBetween(0, 15) == 0 //1 in 16
-            ) {
-                ( (ServerWorld)world ).spawnParticles(
-                    ParticleTypes.ELECTRIC_SPARK,
-                    false, true,
-                    dynamic.getX(), dynamic.getBodyY(1.0), dynamic.getZ(),
-                    1,
-                    0.05*direction.x * world.random.nextGaussian(),
-                    0.05*direction.y * world.random.nextGaussian(),
-                    0.05*direction.z * world.random.nextGaussian(),
-                    0.02 * world.random.nextGaussian()
-                );
-                world.playSound(
-                        dynamic,
-                        dynamic.getX(), dynamic.getY(), dynamic.getZ(),
-                        SoundEvents.BLOCK_AMETHYST_BLOCK_RESONATE,
-                        SoundCategory.PLAYERS,
-                        0.25f, 1.5f,
-                        world.getRandom().nextLong()
-                );
-            }
-
+            effects.roll(dynamic);
         }
 
+        //velocity = speed * normalized direction (no pull at all when both entities share a position)
+        double speed_per_distance = (distance == 0) ? 0 : speed/distance;
         dynamic.velocityDirty = true;
-        dynamic.setVelocity( getVelocity(speed, direction) );
+        dynamic.setVelocity(
+            speed_per_distance * directionX,
+            speed_per_distance * directionY,
+            speed_per_distance * directionZ
+        );
     }
 }
@@ -1,11 +1,13 @@
 package me.wheelershigley.silktouchplus;
 
 import me.wheelershigley.silktouchplus.data.GameRuleLootFunction;
+import me.wheelershigley.silktouchplus.helpers.DropClassification;
 import net.fabricmc.api.ModInitializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static me.wheelershigley.silktouchplus.registrations.CakeDrops.registerCakeDrop;
+import static me.wheelershigley.silktouchplus.registrations.CommandRegistrator.registerCommands;
 import static me.wheelershigley.silktouchplus.registrations.GameRuleRegistrator.*;
 import static me.wheelershigley.silktouchplus.registrations.LootTableRegistrator.*;
 
@@ -16,9 +18,11 @@ public class SilkTouchPlus implements ModInitializer {
     @Override
     public void onInitialize() {
         GameRuleLootFunction.register();
+        DropClassification.register();
         registerGameRules();
         registerLootTables();
 
         registerCakeDrop();
+        registerCommands();
     }
 }
\ No newline at end of file
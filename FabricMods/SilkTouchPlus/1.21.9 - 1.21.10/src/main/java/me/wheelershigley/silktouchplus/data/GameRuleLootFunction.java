@@ -1,6 +1,10 @@
 package me.wheelershigley.silktouchplus.data;
 
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
 import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import me.wheelershigley.silktouchplus.registrations.GameRuleRegistrator;
 import net.minecraft.item.ItemStack;
 import net.minecraft.loot.context.LootContext;
 import net.minecraft.loot.function.LootFunction;
@@ -24,6 +28,19 @@ public class GameRuleLootFunction implements LootFunction {
         inverted = invert;
     }
 
+    //the rule's value-holder in one server's game-rules; looked up by key once per server, rather than on every apply
+    private record RuleHandle(GameRules gameRules, GameRules.BooleanRule value) {}
+    private RuleHandle handle = null;
+
+    private GameRules.BooleanRule getRuleValue(GameRules gameRules) {
+        RuleHandle handle = this.handle;
+        if(handle == null || handle.gameRules() != gameRules) {
+            handle = new RuleHandle( gameRules, gameRules.get(rule) );
+            this.handle = handle;
+        }
+        return handle.value();
+    }
+
     @Override
     public LootFunctionType<? extends LootFunction> getType() {
         return GAME_RULE;
@@ -31,7 +48,7 @@ public class GameRuleLootFunction implements LootFunction {
 
     @Override
     public ItemStack apply(ItemStack itemStack, LootContext lootContext) {
-        if( lootContext.getWorld().getGameRules().get(rule).get() ) {
+        if( getRuleValue( lootContext.getWorld().getGameRules() ).get() ) {
             return (inverted ? ItemStack.EMPTY : itemStack);
         } else {
             return (inverted ? itemStack : ItemStack.EMPTY);
@@ -39,7 +56,25 @@ public class GameRuleLootFunction implements LootFunction {
     }
 
 
-    public static final MapCodec<GameRuleLootFunction> CODEC = MapCodec.unit(new GameRuleLootFunction(null) );
+    private static final Codec< GameRules.Key<GameRules.BooleanRule> > RULE_CODEC = Codec.STRING.comapFlatMap(
+        (name) -> {
+            GameRules.Key<GameRules.BooleanRule> rule = GameRuleRegistrator.getRule(name);
+            if(rule == null) {
+                return DataResult.error( () -> "Unknown game-rule: " + name );
+            }
+            return DataResult.success(rule);
+        },
+        GameRules.Key::getName
+    );
+    public static final MapCodec<GameRuleLootFunction> CODEC = RecordCodecBuilder.mapCodec(
+        (instance) -> {
+            return instance.group(
+                RULE_CODEC.fieldOf("rule").forGetter( (function) -> function.rule ),
+                Codec.BOOL.optionalFieldOf("inverted", false).forGetter( (function) -> function.inverted )
+            )
+            .apply(instance, GameRuleLootFunction::new);
+        }
+    );
     public static void register() {
         GAME_RULE = Registry.register(
             Registries.LOOT_FUNCTION_TYPE,
@@ -0,0 +1,93 @@
+package me.wheelershigley.silktouchplus.helpers;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.entity.BlockEntityType;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.GameRules;
+
+import static me.wheelershigley.silktouchplus.registrations.GameRuleRegistrator.*;
+
+/**
+ * Which blocks drop with their block-entity's data, worked out once per block (by raw id) instead of on every drop.
+ * <p>
+ * A block's class comes from the block-entity type it supports, so blocks added by other mods are classified too. The table does
+ * not depend on the game rules: it is built once, the first time it is needed (or when the first server starts), by which time the
+ * block registry is frozen. Whether each class is on is kept apart, and refreshed from the game rules when a server starts and
+ * whenever one of the rules changes.
+ */
+public class DropClassification {
+    public static final byte NONE           = 0;
+    public static final byte SPAWNER        = 1;
+    public static final byte VAULT          = 2;
+    public static final byte TRIAL_SPAWNER  = 3;
+    public static final byte BRUSHABLE      = 4; //which item depends on what is buried in it
+
+    //class -> whether its game rule is on; all off until a server starts
+    private static boolean[] enabled = new boolean[BRUSHABLE + 1];
+
+    //built on first access, so that the registry is frozen (and the JVM makes the build thread-safe)
+    private static class Table {
+        private static final byte[] CLASSES = build();
+
+        private static byte[] build() {
+            byte[] classes = new byte[ Registries.BLOCK.size() ];
+            for(Block block : Registries.BLOCK) {
+                BlockState state = block.getDefaultState();
+                byte blockClass = NONE;
+                if( BlockEntityType.MOB_SPAWNER.supports(state) ) {
+                    blockClass = SPAWNER;
+                } else if( BlockEntityType.VAULT.supports(state) ) {
+                    blockClass = VAULT;
+                } else if( BlockEntityType.TRIAL_SPAWNER.supports(state) ) {
+                    blockClass = TRIAL_SPAWNER;
+                } else if( BlockEntityType.BRUSHABLE_BLOCK.supports(state) ) {
+                    blockClass = BRUSHABLE;
+                }
+                classes[ Registries.BLOCK.getRawId(block) ] = blockClass;
+            }
+            return classes;
+        }
+    }
+
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STARTING.register(
+            (server) -> {
+                //builds the table now, rather than during the first drop
+                byte[] classes = Table.CLASSES;
+                refresh(server);
+            }
+        );
+        ServerLifecycleEvents.SERVER_STOPPED.register(
+            (server) -> enabled = new boolean[BRUSHABLE + 1]
+        );
+    }
+
+    /**
+     * Reads which classes are on from the server's game rules; also the game rules' change callback.
+     */
+    public static void refresh(MinecraftServer server) {
+        GameRules gameRules = server.getGameRules();
+        boolean[] newEnabled = new boolean[BRUSHABLE + 1];
+        newEnabled[SPAWNER] = gameRules.getBoolean(SILKTOUCH_SPAWNER);
+        newEnabled[VAULT] = gameRules.getBoolean(SILKTOUCH_VAULT);
+        newEnabled[TRIAL_SPAWNER] = gameRules.getBoolean(SILKTOUCH_TRIAL_SPAWNER);
+        newEnabled[BRUSHABLE] = gameRules.getBoolean(SILKTOUCH_SUSPICIOUS_SAND) || gameRules.getBoolean(SILKTOUCH_SUSPICIOUS_GRAVEL);
+        enabled = newEnabled;
+    }
+
+    /**
+     * @return the block's class, or {@link #NONE} if its game rule is off
+     */
+    public static byte classify(Block block) {
+        byte[] classes = Table.CLASSES;
+        int rawId = Registries.BLOCK.getRawId(block);
+        if(rawId < 0 || classes.length <= rawId) {
+            return NONE;
+        }
+        byte blockClass = classes[rawId];
+        return enabled[blockClass] ? blockClass : NONE;
+    }
+}
@@ -0,0 +1,163 @@
+package me.wheelershigley.silktouchplus.helpers;
+
+import me.wheelershigley.silktouchplus.SilkTouchPlus;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.WorldSavePath;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * How long the drop mixins take, as a histogram of nanoseconds (one bucket per power of two) per mixin.
+ * <p>
+ * Off by default; while off, timing a section costs one volatile read. Counters are lock-free, so breaking on several threads
+ * (or from other mods' quarries) does not contend on a lock.
+ */
+public class DropProfiler {
+    public enum Section {
+        BLOCK_DATA_DROPS,   //BlockEntitiesDataDropsMixin
+        SPAWNER_EXPERIENCE, //SpawnerExperienceDropMixin
+        SPAWNER_PLACEMENT,  //SpawnerBlockPlacementPermissionsMixin
+        COPY_NBT            //CustomDataComponentLootFunctionMixin
+    }
+
+    //bucket i holds durations below 2^i nanoseconds (and at least 2^(i-1))
+    public static final int BUCKETS = 64;
+
+    private static final String FILE_NAME = SilkTouchPlus.MOD_ID + "_stats.csv";
+
+    private static volatile boolean enabled = false;
+
+    private static final Histogram[] histograms = new Histogram[ Section.values().length ]; static {
+        for(int index = 0; index < histograms.length; index++) {
+            histograms[index] = new Histogram();
+        }
+    }
+
+    public static class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong maximum = new AtomicLong();
+
+        private void record(long nanoseconds) {
+            buckets.incrementAndGet( Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(nanoseconds)) );
+            count.increment();
+            total.add(nanoseconds);
+            maximum.accumulateAndGet(nanoseconds, Math::max);
+        }
+
+        private void reset() {
+            for(int bucket = 0; bucket < BUCKETS; bucket++) {
+                buckets.set(bucket, 0L);
+            }
+            count.reset();
+            total.reset();
+            maximum.set(0L);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotal() {
+            return total.sum();
+        }
+
+        public long getMaximum() {
+            return maximum.get();
+        }
+
+        public long getBucket(int bucket) {
+            return buckets.get(bucket);
+        }
+
+        /**
+         * @return upper bound (in nanoseconds) of the bucket the percentile falls in, or 0 if nothing was recorded
+         */
+        public long getPercentile(double percentile) {
+            long count = getCount();
+            if(count == 0L) {
+                return 0L;
+            }
+
+            long rank = (long)Math.ceil(percentile * count);
+            long seen = 0L;
+            for(int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += buckets.get(bucket);
+                if(rank <= seen) {
+                    return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket);
+                }
+            }
+            return getMaximum();
+        }
+    }
+
+    /**
+     * @return the start time to hand to {@link #stop}, or -1 while profiling is off
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : -1L;
+    }
+
+    public static void stop(Section section, long start) {
+        if(start < 0L) {
+            return;
+        }
+        histograms[ section.ordinal() ].record( Math.max(0L, System.nanoTime() - start) );
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    public static void reset() {
+        for(Histogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    public static Histogram getHistogram(Section section) {
+        return histograms[ section.ordinal() ];
+    }
+
+    /**
+     * Writes every histogram to a CSV file in the world folder.
+     *
+     * @return the file written
+     */
+    public static Path writeCsv(MinecraftServer server) throws IOException {
+        Path path = server.getSavePath(WorldSavePath.ROOT).resolve(FILE_NAME);
+        try( BufferedWriter writer = Files.newBufferedWriter(path) ) {
+            writer.write("section,count,total_ns,maximum_ns");
+            for(int bucket = 0; bucket < BUCKETS; bucket++) {
+                writer.write( bucket == BUCKETS - 1 ? ",above_" + (1L << (bucket - 1)) + "_ns" : ",below_" + (1L << bucket) + "_ns" );
+            }
+            writer.newLine();
+
+            for( Section section : Section.values() ) {
+                Histogram histogram = getHistogram(section);
+                writer.write(
+                    section.name().toLowerCase()
+                    + ',' + histogram.getCount()
+                    + ',' + histogram.getTotal()
+                    + ',' + histogram.getMaximum()
+                );
+                for(int bucket = 0; bucket < BUCKETS; bucket++) {
+                    writer.write( "," + histogram.getBucket(bucket) );
+                }
+                writer.newLine();
+            }
+        }
+        return path;
+    }
+}
@@ -2,6 +2,7 @@ package me.wheelershigley.silktouchplus.helpers;
 
 import me.wheelershigley.silktouchplus.SilkTouchPlus;
 import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.component.ComponentMap;
 import net.minecraft.item.BlockItem;
 import net.minecraft.item.ItemStack;
 import net.minecraft.server.world.ServerWorld;
@@ -12,6 +13,8 @@ import org.jetbrains.annotations.Nullable;
 
 public class ItemStacksHelper {
     //based on ServerPlayNetworkHandler::copyBlockDataToStack
+    //data that has a component (e.g. a container's items) is moved as components, and left out of the NBT;
+    //only what has no component is written, straight into the stack's block-entity-data
     public static ItemStack copyBlockDataToStack(
         @Nullable BlockEntity blockEntity,
         ServerWorld world,
@@ -29,7 +32,10 @@ public class ItemStacksHelper {
                 blockEntity.writeComponentlessData(nbtWriteView);
                 //blockEntity.removeFromCopiedStackData(nbtWriteView);
                 BlockItem.setBlockEntityData(stack, blockEntity.getType(), nbtWriteView);
-                stack.applyComponentsFrom(blockEntity.createComponentMap());
+                ComponentMap components = blockEntity.createComponentMap();
+                if( !components.isEmpty() ) {
+                    stack.applyComponentsFrom(components);
+                }
             }
         }
         return stack;
@@ -16,13 +16,16 @@ import net.minecraft.predicate.NumberRange;
 import net.minecraft.predicate.component.ComponentPredicateTypes;
 import net.minecraft.predicate.component.ComponentsPredicate;
 import net.minecraft.predicate.item.*;
+import net.minecraft.registry.Registries;
 import net.minecraft.registry.RegistryKeys;
 import net.minecraft.registry.RegistryWrapper;
 import net.minecraft.registry.tag.ItemTags;
 import net.minecraft.world.GameRules;
 
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 //I used VanillaLootTableGenerator.class as a reference for the static members of this class
 public class LootPoolHelpers extends FabricBlockLootTableProvider {
@@ -154,7 +157,46 @@ public class LootPoolHelpers extends FabricBlockLootTableProvider {
         return tableBuilder.pool( builder.build() ).build();
     }
 
+    //every block's block-entity type, from the registries (so modded blocks are covered too); built on first use, once blocks are registered
+    private static volatile IdentityHashMap< Block, BlockEntityType<?> > blockEntityTypes = null;
+    private static final AtomicLong blockEntityTypeFallbacks = new AtomicLong();
+
+    private static IdentityHashMap< Block, BlockEntityType<?> > getBlockEntityTypes() {
+        IdentityHashMap< Block, BlockEntityType<?> > types = blockEntityTypes;
+        if(types != null) {
+            return types;
+        }
+
+        types = new IdentityHashMap<>();
+        for( BlockEntityType<?> type : Registries.BLOCK_ENTITY_TYPE ) {
+            for(Block block : Registries.BLOCK) {
+                if( type.supports( block.getDefaultState() ) ) {
+                    types.putIfAbsent(block, type);
+                }
+            }
+        }
+        blockEntityTypes = types;
+        return types;
+    }
+
     public static BlockEntityType<?> getBlockEntityType(Block block) {
+        BlockEntityType<?> type = getBlockEntityTypes().get(block);
+        if(type != null) {
+            return type;
+        }
+
+        blockEntityTypeFallbacks.incrementAndGet();
+        return getBlockEntityTypeBySwitch(block);
+    }
+
+    /**
+     * @return how many look-ups were not in the table, and fell back to the switch
+     */
+    public static long getBlockEntityTypeFallbacks() {
+        return blockEntityTypeFallbacks.get();
+    }
+
+    private static BlockEntityType<?> getBlockEntityTypeBySwitch(Block block) {
         return switch(block) {
 //            case BannerBlock banner -> BlockEntityType.BANNER;
 //            case ChestBlock chest -> BlockEntityType.CHEST;
@@ -1,6 +1,7 @@
 package me.wheelershigley.silktouchplus.mixins;
 
-import me.wheelershigley.silktouchplus.SilkTouchPlus;
+import me.wheelershigley.silktouchplus.helpers.DropClassification;
+import me.wheelershigley.silktouchplus.helpers.DropProfiler;
 import me.wheelershigley.silktouchplus.helpers.ItemStacksHelper;
 import me.wheelershigley.silktouchplus.registrations.GameRuleRegistrator;
 import net.minecraft.block.Block;
@@ -40,22 +41,47 @@ public class BlockEntitiesDataDropsMixin {
         ItemStack stack,
         CallbackInfoReturnable< List<ItemStack> > cir
     ) {
-        if(blockEntity != null) {
-            Item itemWithBlockEntityData = getItemForModifiedBlockData(blockEntity);
+        //nearly every block is not one of these; one table read, and no game-rule look-ups for them
+        byte blockClass = DropClassification.classify( state.getBlock() );
+        if(blockClass == DropClassification.NONE || blockEntity == null) {
+            return;
+        }
+
+        long start = DropProfiler.start();
+        try {
+            Item itemWithBlockEntityData = getItemForModifiedBlockData(blockClass, blockEntity);
             if(itemWithBlockEntityData != null) {
                 ItemStack itemStackWithBlockEntityData = ItemStacksHelper.copyBlockDataToStack( blockEntity, world, pos, new ItemStack(itemWithBlockEntityData) );
                 cir.setReturnValue( List.of(itemStackWithBlockEntityData) );
             }
+        } finally {
+            DropProfiler.stop(DropProfiler.Section.BLOCK_DATA_DROPS, start);
         }
     }
 
     @Unique
-    private static @Nullable Item getItemForModifiedBlockData(@Nullable BlockEntity blockEntity) {
-        //input validation
-        if(blockEntity == null) {
-            return null;
+    private static @Nullable Item getItemForModifiedBlockData(byte blockClass, BlockEntity blockEntity) {
+        //modified blocks are: Spawner, Vault, Trial_Spawner, and Suspicious Blocks; the classification only has those whose game-rule is on
+        switch(blockClass) {
+            case DropClassification.SPAWNER -> {
+                return blockEntity instanceof MobSpawnerBlockEntity ? Items.SPAWNER : null;
+            }
+            case DropClassification.VAULT -> {
+                return blockEntity instanceof VaultBlockEntity ? Items.VAULT : null;
+            }
+            case DropClassification.TRIAL_SPAWNER -> {
+                return blockEntity instanceof TrialSpawnerBlockEntity ? Items.TRIAL_SPAWNER : null;
+            }
+            case DropClassification.BRUSHABLE -> {}
+            default -> {
+                return null;
+            }
         }
 
+        //suspicious blocks share a class, so their game-rules are still checked here
+        if( !(blockEntity instanceof BrushableBlockEntity) ) {
+            return null;
+        }
         GameRules gameRules = null; {
             World world = blockEntity.getWorld();
             if(world == null) {
@@ -69,42 +95,19 @@ public class BlockEntitiesDataDropsMixin {
 
             gameRules = server.getGameRules();
         }
-        //modified blocks are: Spawner, Vault, Trial_Spawner, and Suspicious Blocks
-        if(
-            blockEntity instanceof MobSpawnerBlockEntity
-            && gameRules.getBoolean(GameRuleRegistrator.SILKTOUCH_SPAWNER)
-        ) {
-            return Items.SPAWNER;
-        }
 
+        Item item = ( (BrushableBlockEntity)blockEntity ).getItem().getItem();
         if(
-            blockEntity instanceof VaultBlockEntity
-            && gameRules.getBoolean(GameRuleRegistrator.SILKTOUCH_VAULT)
+            item.equals(Items.SUSPICIOUS_SAND)
+            && gameRules.getBoolean(GameRuleRegistrator.SILKTOUCH_SUSPICIOUS_SAND)
         ) {
-            return Items.VAULT;
+            return item;
         }
-
         if(
-            blockEntity instanceof TrialSpawnerBlockEntity
-            && gameRules.getBoolean(GameRuleRegistrator.SILKTOUCH_TRIAL_SPAWNER)
+            item.equals(Items.SUSPICIOUS_GRAVEL)
+            && gameRules.getBoolean(GameRuleRegistrator.SILKTOUCH_SUSPICIOUS_GRAVEL)
         ) {
-            return Items.TRIAL_SPAWNER;
-        }
-
-        if(blockEntity instanceof BrushableBlockEntity) {
-            Item item = ( (BrushableBlockEntity)blockEntity ).getItem().getItem();
-            if(
-                item.equals(Items.SUSPICIOUS_SAND)
-                && gameRules.getBoolean(GameRuleRegistrator.SILKTOUCH_SUSPICIOUS_SAND)
-            ) {
-                return item;
-            }
-            if(
-                item.equals(Items.SUSPICIOUS_GRAVEL)
-                && gameRules.getBoolean(GameRuleRegistrator.SILKTOUCH_SUSPICIOUS_GRAVEL)
-            ) {
-                return item;
-            }
+            return item;
         }
 
         return null;
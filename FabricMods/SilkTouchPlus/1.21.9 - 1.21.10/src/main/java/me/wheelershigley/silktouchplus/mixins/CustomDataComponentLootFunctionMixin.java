@@ -1,5 +1,6 @@
 package me.wheelershigley.silktouchplus.mixins;
 
+import me.wheelershigley.silktouchplus.helpers.DropProfiler;
 import net.minecraft.block.Block;
 import net.minecraft.block.entity.BlockEntityType;
 import net.minecraft.component.ComponentType;
@@ -39,6 +40,16 @@ public abstract class CustomDataComponentLootFunctionMixin extends ConditionalLo
      */
     @Overwrite
     public ItemStack process(ItemStack stack, LootContext context) {
+        long start = DropProfiler.start();
+        try {
+            return copyNbt(stack, context);
+        } finally {
+            DropProfiler.stop(DropProfiler.Section.COPY_NBT, start);
+        }
+    }
+
+    @Unique
+    private ItemStack copyNbt(ItemStack stack, LootContext context) {
         Item item = stack.getItem();
         final ComponentType<?> type;
 
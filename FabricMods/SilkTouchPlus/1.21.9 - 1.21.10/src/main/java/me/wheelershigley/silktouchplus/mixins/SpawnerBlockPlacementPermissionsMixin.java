@@ -1,5 +1,6 @@
 package me.wheelershigley.silktouchplus.mixins;
 
+import me.wheelershigley.silktouchplus.helpers.DropProfiler;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.VaultBlock;
@@ -46,34 +47,39 @@ public class SpawnerBlockPlacementPermissionsMixin {
         ItemStack stack,
         CallbackInfoReturnable<Boolean> cir
     ) {
-        if( world.isClient() || player == null) {
-            cir.setReturnValue(false);
-        }
+        long start = DropProfiler.start();
+        try {
+            if( world.isClient() || player == null) {
+                cir.setReturnValue(false);
+            }
 
-        TypedEntityData< BlockEntityType<?> > typedEntityData = (TypedEntityData< BlockEntityType<?> >)stack.get(DataComponentTypes.BLOCK_ENTITY_DATA);
-        if(typedEntityData == null) {
-            cir.setReturnValue(false);
-        }
-        assert typedEntityData != null;
+            TypedEntityData< BlockEntityType<?> > typedEntityData = (TypedEntityData< BlockEntityType<?> >)stack.get(DataComponentTypes.BLOCK_ENTITY_DATA);
+            if(typedEntityData == null) {
+                cir.setReturnValue(false);
+            }
+            assert typedEntityData != null;
 
-        BlockEntity blockEntity = world.getBlockEntity(pos);
-        if(blockEntity == null) {
-            cir.setReturnValue(false);
-        }
-        assert blockEntity != null;
+            BlockEntity blockEntity = world.getBlockEntity(pos);
+            if(blockEntity == null) {
+                cir.setReturnValue(false);
+            }
+            assert blockEntity != null;
 
-        if(
-            stack.getItem().equals(Items.SPAWNER)
-            || stack.getItem().equals(Items.TRIAL_SPAWNER)
-            || stack.getItem().equals(Items.VAULT)
-        ) {
-            //TODO: set Ominous Vaults to Ominous
-            cir.setReturnValue(
-                typedEntityData.applyToBlockEntity(
-                    blockEntity,
-                    world.getRegistryManager()
-                )
-            );
+            if(
+                stack.getItem().equals(Items.SPAWNER)
+                || stack.getItem().equals(Items.TRIAL_SPAWNER)
+                || stack.getItem().equals(Items.VAULT)
+            ) {
+                //TODO: set Ominous Vaults to Ominous
+                cir.setReturnValue(
+                    typedEntityData.applyToBlockEntity(
+                        blockEntity,
+                        world.getRegistryManager()
+                    )
+                );
+            }
+        } finally {
+            DropProfiler.stop(DropProfiler.Section.SPAWNER_PLACEMENT, start);
         }
     }
 }
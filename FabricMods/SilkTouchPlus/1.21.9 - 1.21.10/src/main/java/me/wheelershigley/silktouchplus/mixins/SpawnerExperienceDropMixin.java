@@ -1,6 +1,7 @@
 package me.wheelershigley.silktouchplus.mixins;
 
 import com.mojang.serialization.MapCodec;
+import me.wheelershigley.silktouchplus.helpers.DropProfiler;
 import me.wheelershigley.silktouchplus.helpers.EnchantmentsHelper;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.BlockWithEntity;
@@ -47,22 +48,27 @@ public abstract class SpawnerExperienceDropMixin extends BlockWithEntity  {
         cancellable = true
     )
     protected void onStacksDropped(BlockState state, ServerWorld world, BlockPos pos, ItemStack tool, boolean dropExperience, CallbackInfo ci) {
-        /* Exp. should not drop if the spawner is silk-touched. */ {
-            Set< RegistryEntry<Enchantment> > enchants = EnchantmentHelper.getEnchantments(tool).getEnchantments();
-            if(
-                world.getGameRules().getBoolean(SILKTOUCH_SPAWNER)
-                && EnchantmentsHelper.includesEnchantment(enchants, Enchantments.SILK_TOUCH)
-            ) {
-                dropExperience = false;
+        long start = DropProfiler.start();
+        try {
+            /* Exp. should not drop if the spawner is silk-touched. */ {
+                Set< RegistryEntry<Enchantment> > enchants = EnchantmentHelper.getEnchantments(tool).getEnchantments();
+                if(
+                    world.getGameRules().getBoolean(SILKTOUCH_SPAWNER)
+                    && EnchantmentsHelper.includesEnchantment(enchants, Enchantments.SILK_TOUCH)
+                ) {
+                    dropExperience = false;
+                }
             }
-        }
 
-        /* Vanilla Implementation */ {
-            super.onStacksDropped(state, world, pos, tool, dropExperience);
-            if(dropExperience) {
-                int i = 15 + world.random.nextInt(15) + world.random.nextInt(15);
-                this.dropExperience(world, pos, i);
+            /* Vanilla Implementation */ {
+                super.onStacksDropped(state, world, pos, tool, dropExperience);
+                if(dropExperience) {
+                    int i = 15 + world.random.nextInt(15) + world.random.nextInt(15);
+                    this.dropExperience(world, pos, i);
+                }
             }
+        } finally {
+            DropProfiler.stop(DropProfiler.Section.SPAWNER_EXPERIENCE, start);
         }
 
         ci.cancel();
@@ -0,0 +1,118 @@
+package me.wheelershigley.silktouchplus.registrations;
+
+import com.mojang.brigadier.Command;
+import me.wheelershigley.silktouchplus.SilkTouchPlus;
+import me.wheelershigley.silktouchplus.helpers.DropProfiler;
+import me.wheelershigley.silktouchplus.helpers.LootPoolHelpers;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Predicate;
+
+public class CommandRegistrator {
+    private static final Predicate<ServerCommandSource> isServerOrOperator = (source) -> {
+        if( !source.isExecutedByPlayer() ) {
+            return true;
+        }
+        ServerPlayerEntity sourcePlayer = source.getPlayer();
+        if(sourcePlayer == null) {
+            return false;
+        }
+
+        MinecraftServer server = sourcePlayer.getEntityWorld().getServer();
+        if(server == null) {
+            return false;
+        }
+        return server.getPlayerManager().isOperator(
+            sourcePlayer.getPlayerConfigEntry()
+        );
+    };
+
+    private static void sendFeedback(ServerCommandSource source, String key, Object... args) {
+        source.sendFeedback(
+            () -> Text.literal(
+                Text.translatable(key, args).getString()
+            ),
+            false
+        );
+    }
+
+    public static void registerCommands() {
+        Command<ServerCommandSource> statsCommand = (context) -> {
+            sendFeedback(
+                context.getSource(),
+                DropProfiler.isEnabled() ? "silk_touch_plus.command.text.stats.enabled" : "silk_touch_plus.command.text.stats.disabled"
+            );
+            for( DropProfiler.Section section : DropProfiler.Section.values() ) {
+                DropProfiler.Histogram histogram = DropProfiler.getHistogram(section);
+                long count = histogram.getCount();
+                sendFeedback(
+                    context.getSource(),
+                    "silk_touch_plus.command.text.stats.section",
+                    section.name().toLowerCase(),
+                    Long.toString(count),
+                    Long.toString( count == 0L ? 0L : histogram.getTotal() / count ),
+                    Long.toString( histogram.getPercentile(0.50) ),
+                    Long.toString( histogram.getPercentile(0.99) ),
+                    Long.toString( histogram.getMaximum() )
+                );
+            }
+            sendFeedback(
+                context.getSource(),
+                "silk_touch_plus.command.text.stats.block_entity_type_fallbacks",
+                Long.toString( LootPoolHelpers.getBlockEntityTypeFallbacks() )
+            );
+            return 0;
+        };
+        Command<ServerCommandSource> startCommand = (context) -> {
+            DropProfiler.setEnabled(true);
+            sendFeedback( context.getSource(), "silk_touch_plus.command.text.stats.enabled" );
+            return 0;
+        };
+        Command<ServerCommandSource> stopCommand = (context) -> {
+            DropProfiler.setEnabled(false);
+            sendFeedback( context.getSource(), "silk_touch_plus.command.text.stats.disabled" );
+            return 0;
+        };
+        Command<ServerCommandSource> resetCommand = (context) -> {
+            DropProfiler.reset();
+            sendFeedback( context.getSource(), "silk_touch_plus.command.text.stats.reset" );
+            return 0;
+        };
+        Command<ServerCommandSource> csvCommand = (context) -> {
+            try {
+                Path path = DropProfiler.writeCsv( context.getSource().getServer() );
+                sendFeedback( context.getSource(), "silk_touch_plus.command.text.stats.csv", path.toString() );
+            } catch(IOException ioException) {
+                SilkTouchPlus.LOGGER.error("Error writing the drop statistics.", ioException);
+                sendFeedback( context.getSource(), "silk_touch_plus.command.text.stats.csv_failed" );
+                return 1;
+            }
+            return 0;
+        };
+
+        CommandRegistrationCallback.EVENT.register(
+            (dispatcher, registryAccess, environment) -> {
+                dispatcher.register(
+                    CommandManager.literal( SilkTouchPlus.MOD_ID.replace("_", "") )
+                        .requires(isServerOrOperator)
+                        .then(
+                            CommandManager
+                                .literal("stats")
+                                .executes(statsCommand)
+                                .then( CommandManager.literal("start").executes(startCommand) )
+                                .then( CommandManager.literal("stop").executes(stopCommand) )
+                                .then( CommandManager.literal("reset").executes(resetCommand) )
+                                .then( CommandManager.literal("csv").executes(csvCommand) )
+                        )
+                );
+            }
+        );
+    }
+}
@@ -1,8 +1,12 @@
 package me.wheelershigley.silktouchplus.registrations;
 
+import me.wheelershigley.silktouchplus.helpers.DropClassification;
 import net.fabricmc.fabric.api.gamerule.v1.GameRuleFactory;
 import net.fabricmc.fabric.api.gamerule.v1.GameRuleRegistry;
 import net.minecraft.world.GameRules;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
 
 public class GameRuleRegistrator {
     public static GameRules.Key<GameRules.BooleanRule>
@@ -19,12 +23,23 @@ public class GameRuleRegistrator {
         SILKTOUCH_CAKE
     ;
 
+    private static final HashMap< String, GameRules.Key<GameRules.BooleanRule> > rulesByName = new HashMap<>();
+
+    public static @Nullable GameRules.Key<GameRules.BooleanRule> getRule(String name) {
+        return rulesByName.get(name);
+    }
+
     private static < T extends GameRules.Rule<T> > GameRules.Key<GameRules.BooleanRule> register(String name, boolean default_value) {
-        return GameRuleRegistry.register(
+        GameRules.Key<GameRules.BooleanRule> rule = GameRuleRegistry.register(
             name,
             GameRules.Category.PLAYER,
-            GameRuleFactory.createBooleanRule(default_value)
+            GameRuleFactory.createBooleanRule(
+                default_value,
+                (server, changedRule) -> DropClassification.refresh(server)
+            )
         );
+        rulesByName.put(name, rule);
+        return rule;
     }
     public static void registerGameRules() {
         SILKTOUCH_BUDDING_AMETHYST      = register("silktouchBuddingAmethyst",      true);
@@ -6,6 +6,7 @@ import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.world.World;
 import www.wheelershigley.me.trade_experience.helpers.ExperienceHelper;
+import www.wheelershigley.me.trade_experience.ledger.TradeLedger;
 
 import java.util.UUID;
 
@@ -87,7 +88,9 @@ public class Trade {
             return;
         }
 
+        long ledgerSequence = TradeLedger.begin(giver, taker, amount);
         if( !ExperienceHelper.takeExperience(giver, amount) ) {
+            TradeLedger.end(ledgerSequence, TradeLedger.ABORTED, giver, taker, amount);
             sendMessage(
                 giver,
                 "trade_experience.text.send_failure",
@@ -103,6 +106,7 @@ public class Trade {
         );
 
         ExperienceHelper.giveExperience(taker, amount);
+        TradeLedger.end(ledgerSequence, TradeLedger.COMMITTED, giver, taker, amount);
         taker.playSound(
             SoundEvents.ENTITY_PLAYER_LEVELUP,
             1.0f,
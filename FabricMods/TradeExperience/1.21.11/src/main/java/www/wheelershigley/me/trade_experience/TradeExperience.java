@@ -5,6 +5,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import www.wheelershigley.me.trade_experience.config.*;
 import www.wheelershigley.me.trade_experience.helpers.ConfigurationHelper;
+import www.wheelershigley.me.trade_experience.helpers.TradeExpiryWheel;
+import www.wheelershigley.me.trade_experience.ledger.TradeLedger;
 
 import java.util.HashMap;
 import java.util.UUID;
@@ -25,6 +27,7 @@ public class TradeExperience implements ModInitializer {
     public void onInitialize() {
         registerPlayerClickListener();
         registerCheckTimeoutsEachTick();
+        TradeLedger.register();
 
         registerCommands();
         reload();
@@ -35,5 +38,7 @@ public class TradeExperience implements ModInitializer {
 
         TradeExperience.experienceName = (String)configurations.getConfiguration("experience_name").getValue();
         cooldown = 20L * (long)configurations.getConfiguration("trade_timeout_time").getValue();
+        TradeExpiryWheel.resize(cooldown);
+        TradeLedger.commitInterval = Math.max( 1L, (long)configurations.getConfiguration("ledger_commit_interval").getValue() );
     }
 }
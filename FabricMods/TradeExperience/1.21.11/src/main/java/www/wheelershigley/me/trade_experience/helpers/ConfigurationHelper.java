@@ -28,6 +28,13 @@ public class ConfigurationHelper {
                 "Monetary-like experience name."
             )
         );
+        configurations.addConfiguration(
+            new Configuration<>(
+                "ledger_commit_interval",
+                20L,
+                "How many ticks trade-ledger records are gathered for, before being written to disk together."
+            )
+        );
 
         return configurations;
     }
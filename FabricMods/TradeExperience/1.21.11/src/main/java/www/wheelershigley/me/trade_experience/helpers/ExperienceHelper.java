@@ -3,6 +3,8 @@ package www.wheelershigley.me.trade_experience.helpers;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.network.ServerPlayerEntity;
 
+import java.util.Arrays;
+
 public class ExperienceHelper {
     private static final int MAX_BALANCE = ~(0b11 << 30);
 
@@ -20,34 +22,56 @@ public class ExperienceHelper {
         return 9*level-158;
     }
 
+    /*
+     * Total points needed to reach each level, for every level whose total still fits in an int.
+     * Built by summing `pointsToNextLevel`, so it is exact; points->level is a binary search instead of a square-root.
+     */
+    private static final int[] LEVEL_POINTS = buildLevelPoints();
+    public static final int MAX_LEVEL = LEVEL_POINTS.length - 1;
+
+    private static int[] buildLevelPoints() {
+        int levelCount = 1;
+        long total = 0L;
+        while(true) {
+            total += pointsToNextLevel(levelCount - 1);
+            if(Integer.MAX_VALUE < total) {
+                break;
+            }
+            levelCount++;
+        }
+
+        int[] levelPoints = new int[levelCount];
+        for(int level = 1; level < levelCount; level++) {
+            levelPoints[level] = levelPoints[level - 1] + pointsToNextLevel(level - 1);
+        }
+        return levelPoints;
+    }
+
     public static int levelToPoints(int level) {
         if(level < 0) {
             level = Math.abs(level);
         }
-        double _level = (double)level;
-
-        if(0 <= level && level <= 16) {
-            return (int)( _level*_level + 6.0*_level );
-        }
-        if(16 < level && level <= 31) {
-            return (int)( 2.5*_level*_level - 40.5*_level + 360.0 );
+        if(MAX_LEVEL < level || level < 0) {
+            //level is beyond what an int of points can hold (or was Integer.MIN_VALUE)
+            return Integer.MAX_VALUE;
         }
-        return (int)( 4.5*_level*_level - 162.5*_level + 2220.0 );
+        return LEVEL_POINTS[level];
     }
 
     public static int pointsToLevel(int points) {
         if(points < 0) {
             points = Math.abs(points);
         }
-        double _points = (double)points;
-
-        if(0 <= points && points <= 352) {
-            return (int)( Math.sqrt(_points+9.0)-3.0 );
+        if(points < 0) {
+            points = Integer.MAX_VALUE;
         }
-        if(352 < points && points <= 1507) {
-            return (int)( 8.1 + Math.sqrt(0.4*_points-78.39) );
+
+        //highest level whose total is at most `points`
+        int index = Arrays.binarySearch(LEVEL_POINTS, points);
+        if(index < 0) {
+            index = -index - 2;
         }
-        return (int)(   325.0/18.0   +   Math.sqrt(  2.0/9.0  *  (_points - 54215.0/72.0)  )   );
+        return index;
     }
 
     public static boolean takeExperience(ServerPlayerEntity player, int amount) {
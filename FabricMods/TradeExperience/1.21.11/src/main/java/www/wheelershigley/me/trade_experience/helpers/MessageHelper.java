@@ -1,5 +1,6 @@
 package www.wheelershigley.me.trade_experience.helpers;
 
+import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import org.jetbrains.annotations.Nullable;
@@ -18,6 +19,17 @@ public class MessageHelper {
         );
     }
 
+    public static void sendFeedback(ServerCommandSource source, String translationText, Object... arguments) {
+        source.sendMessage(
+            Text.literal(
+                Text.translatable(
+                    translationText,
+                    arguments
+                ).getString()
+            )
+        );
+    }
+
     public static void sendSentFundsChatMessage(ServerPlayerEntity sender, @Nullable ServerPlayerEntity receiver, String amount) {
         if(sender == null) {
             return;
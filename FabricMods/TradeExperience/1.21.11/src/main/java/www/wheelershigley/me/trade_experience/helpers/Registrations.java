@@ -4,6 +4,7 @@ import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.event.player.UseEntityCallback;
 import net.minecraft.command.argument.GameProfileArgumentType;
@@ -16,10 +17,15 @@ import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.ActionResult;
+import net.minecraft.util.NameToIdCache;
 import www.wheelershigley.me.trade_experience.Trade;
 import www.wheelershigley.me.trade_experience.TradeExperience;
 import www.wheelershigley.me.trade_experience.commands.*;
+import www.wheelershigley.me.trade_experience.ledger.TradeLedger;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.function.Predicate;
 
@@ -57,6 +63,11 @@ public class Registrations {
                     activeTrades.put(traderID, trade);
                 }
                 if(isNewTrade) {
+                    TradeExpiryWheel.schedule(
+                        traderID,
+                        trade,
+                        ( (ServerPlayerEntity)target ).getEntityWorld().getServer().getTicks()
+                    );
                     sendInitiationTellRaw(
                         (ServerPlayerEntity)target,
                         (ServerPlayerEntity)player
@@ -74,25 +85,12 @@ public class Registrations {
         );
     }
 
-    private static long delta_time = 0;
     public static void registerCheckTimeoutsEachTick() {
-        ServerTickEvents.END_SERVER_TICK.register(
+        ServerTickEvents.END_SERVER_TICK.register(TradeExpiryWheel::tick);
+        ServerLifecycleEvents.SERVER_STOPPED.register(
             (server) -> {
-                ArrayList<UUID> tradesToBeRemoved = new ArrayList<>();
-                for( Map.Entry<UUID, Trade> activeTrade: activeTrades.entrySet() ) {
-                    delta_time = activeTrade.getValue().getWorld().getTime() - activeTrade.getValue().getTime();
-                    if(TradeExperience.cooldown <= delta_time) {
-                        sendTradeTimeOutChatMessage(
-                            server.getPlayerManager().getPlayer( activeTrade.getValue().getSender() ),
-                            server.getPlayerManager().getPlayer( activeTrade.getValue().getReciever() )
-                        );
-
-                        tradesToBeRemoved.add( activeTrade.getKey() );
-                    }
-                }
-                for(UUID uuidToRemove : tradesToBeRemoved) {
-                    activeTrades.remove(uuidToRemove);
-                }
+                activeTrades.clear();
+                TradeExpiryWheel.clear();
             }
         );
     }
@@ -116,6 +114,41 @@ public class Registrations {
         );
     };
 
+    private static final int AUDIT_LIMIT = 10;
+    private static final DateTimeFormatter auditTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone( ZoneId.systemDefault() );
+
+    private static String getPlayerName(MinecraftServer server, UUID playerID) {
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(playerID);
+        if(player != null) {
+            return player.getName().getString();
+        }
+        NameToIdCache nameToIdCache = server.getApiServices().nameToIdCache();
+        if(nameToIdCache != null) {
+            Optional<PlayerConfigEntry> cachedEntry = nameToIdCache.getByUuid(playerID);
+            if( cachedEntry.isPresent() ) {
+                return cachedEntry.get().name();
+            }
+        }
+        return playerID.toString();
+    }
+
+    private static String getOutcomeKey(byte outcome) {
+        switch(outcome) {
+            case TradeLedger.COMMITTED: {
+                return "trade_experience.command.text.audit.committed";
+            }
+            case TradeLedger.ABORTED: {
+                return "trade_experience.command.text.audit.aborted";
+            }
+            case TradeLedger.INTERRUPTED: {
+                return "trade_experience.command.text.audit.interrupted";
+            }
+            default: {
+                return "trade_experience.command.text.audit.pending";
+            }
+        }
+    }
+
     public static void registerCommands() {
         //balance command
         Command<ServerCommandSource> personalBalanceCommand = (context) -> {
@@ -330,6 +363,35 @@ public class Registrations {
             return 1;
         };
 
+        Command<ServerCommandSource> auditCommand = (context) -> {
+            ServerCommandSource source = context.getSource();
+            MinecraftServer server = source.getServer();
+
+            for( PlayerConfigEntry target : GameProfileArgumentType.getProfileArgument(context, "target") ) {
+                ArrayList<TradeLedger.Entry> transfers = TradeLedger.getTransfers( target.id(), AUDIT_LIMIT );
+                if( transfers.isEmpty() ) {
+                    sendFeedback(source, "trade_experience.command.text.audit.empty", target.name() );
+                    continue;
+                }
+
+                sendFeedback(source, "trade_experience.command.text.audit", Integer.toString( transfers.size() ), target.name() );
+                for(TradeLedger.Entry transfer : transfers) {
+                    sendFeedback(
+                        source,
+                        "trade_experience.command.text.audit.entry",
+                        Long.toString( transfer.sequence() ),
+                        auditTimeFormatter.format( Instant.ofEpochMilli( transfer.timestamp() ) ),
+                        getPlayerName( server, transfer.giver() ),
+                        getPlayerName( server, transfer.taker() ),
+                        Integer.toString( transfer.amount() ),
+                        TradeExperience.experienceName,
+                        Text.translatable(  getOutcomeKey( TradeLedger.getOutcome( transfer.sequence() ) )  ).getString()
+                    );
+                }
+            }
+            return 0;
+        };
+
         CommandRegistrationCallback.EVENT.register(
                 (dispatcher, registryAccess, environment) -> {
                     dispatcher.register(
@@ -337,6 +399,17 @@ public class Registrations {
                             MOD_ID.toLowerCase().replaceAll("_","")
                         )
                         .requires(isServerOrOperator)
+                        .then(
+                            CommandManager.literal("audit")
+                            .then(
+                                CommandManager.argument(
+                                    "target",
+                                    GameProfileArgumentType.gameProfile()
+                                )
+                                .suggests( new PlayersSuggestionProvider() )
+                                .executes(auditCommand)
+                            )
+                        )
                         .then(
                             CommandManager.argument(
                                 "sublet",
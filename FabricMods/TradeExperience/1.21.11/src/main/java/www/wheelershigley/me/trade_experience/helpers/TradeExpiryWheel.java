@@ -0,0 +1,116 @@
+package www.wheelershigley.me.trade_experience.helpers;
+
+import net.minecraft.server.MinecraftServer;
+import www.wheelershigley.me.trade_experience.Trade;
+import www.wheelershigley.me.trade_experience.TradeExperience;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static www.wheelershigley.me.trade_experience.TradeExperience.activeTrades;
+import static www.wheelershigley.me.trade_experience.helpers.MessageHelper.sendTradeTimeOutChatMessage;
+
+/**
+ * Hashed timer wheel of trade time-outs, keyed by server tick; each tick only looks at the trades expiring on that tick.
+ * <p>
+ * The wheel has (up to {@value MAXIMUM_SLOTS}) more slots than the time-out is long, so a slot only ever holds trades expiring on the same tick.
+ * Trades that are replaced or completed are not taken off the wheel; they are skipped when their slot comes around.
+ */
+public class TradeExpiryWheel {
+    private static final int MAXIMUM_SLOTS = 4096;
+
+    private record Expiry(UUID trader, Trade trade, long startTick, long deadline) {}
+
+    private static ArrayList<Expiry>[] slots = createSlots(1);
+    private static int scheduled = 0;
+
+    @SuppressWarnings("unchecked")
+    private static ArrayList<Expiry>[] createSlots(int count) {
+        return (ArrayList<Expiry>[])new ArrayList[count];
+    }
+
+    private static void add(Expiry expiry) {
+        int index = (int)( expiry.deadline() & (slots.length - 1) );
+        if(slots[index] == null) {
+            slots[index] = new ArrayList<>();
+        }
+        slots[index].add(expiry);
+        scheduled++;
+    }
+
+    /**
+     * @param currentTick the server's current tick (see {@link MinecraftServer#getTicks()})
+     */
+    public static void schedule(UUID trader, Trade trade, long currentTick) {
+        add(  new Expiry( trader, trade, currentTick, currentTick + Math.max(0L, TradeExperience.cooldown) )  );
+    }
+
+    /**
+     * Re-sizes the wheel for a (re-loaded) time-out, and re-schedules pending trades with it.
+     */
+    public static void resize(long cooldown) {
+        int slotCount = 1;
+        while(slotCount <= cooldown && slotCount < MAXIMUM_SLOTS) {
+            slotCount <<= 1;
+        }
+
+        ArrayList<Expiry>[] oldSlots = slots;
+        slots = createSlots(slotCount);
+        scheduled = 0;
+        for(ArrayList<Expiry> slot : oldSlots) {
+            if(slot == null) {
+                continue;
+            }
+            for(Expiry expiry : slot) {
+                add(
+                    new Expiry(
+                        expiry.trader(),
+                        expiry.trade(),
+                        expiry.startTick(),
+                        expiry.startTick() + Math.max(0L, cooldown)
+                    )
+                );
+            }
+        }
+    }
+
+    public static void clear() {
+        slots = createSlots(slots.length);
+        scheduled = 0;
+    }
+
+    public static void tick(MinecraftServer server) {
+        if(scheduled == 0) {
+            return;
+        }
+
+        long currentTick = server.getTicks();
+        ArrayList<Expiry> slot = slots[ (int)( currentTick & (slots.length - 1) ) ];
+        if(slot == null) {
+            return;
+        }
+
+        //swap-remove, so that expiring trades don't shift the rest of the slot
+        for(int index = slot.size() - 1; 0 <= index; index--) {
+            Expiry expiry = slot.get(index);
+            if(currentTick < expiry.deadline() ) {
+                //only when the time-out is longer than the wheel
+                continue;
+            }
+
+            int lastIndex = slot.size() - 1;
+            slot.set( index, slot.get(lastIndex) );
+            slot.remove(lastIndex);
+            scheduled--;
+
+            if( activeTrades.get( expiry.trader() ) != expiry.trade() ) {
+                continue;
+            }
+            activeTrades.remove( expiry.trader() );
+            sendTradeTimeOutChatMessage(
+                server.getPlayerManager().getPlayer( expiry.trade().getSender() ),
+                server.getPlayerManager().getPlayer( expiry.trade().getReciever() )
+            );
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package www.wheelershigley.me.trade_experience.ledger;
+
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.WorldSavePath;
+import www.wheelershigley.me.trade_experience.TradeExperience;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import static www.wheelershigley.me.trade_experience.TradeExperience.LOGGER;
+import static www.wheelershigley.me.trade_experience.TradeExperience.MOD_ID;
+
+/**
+ * Append-only ledger of experience transfers, kept in the world folder.
+ * <p>
+ * Each transfer is written ahead as a BEGIN record, and closed by a COMMITTED or ABORTED record once the experience has moved (or not).
+ * A BEGIN record is written to the file before the experience moves, but (like the closing records, which are buffered) it is only
+ * synced to the disk every `ledger_commit_interval` ticks (and when the server stops), rather than once per transfer:
+ * so a crash of the server's process leaves it in the ledger, but a crash of the machine can lose the last interval of records.
+ * <p>
+ * On startup, the ledger is replayed: a partial record at the end (from a crash mid-write) is cut off, corrupt records are logged
+ * and skipped, and transfers that were begun but never closed are logged (and closed as INTERRUPTED) so that they can be
+ * reconciled by hand.
+ */
+public class TradeLedger {
+    public static final byte BEGIN = 1;
+    public static final byte COMMITTED = 2;
+    public static final byte ABORTED = 3;
+    public static final byte INTERRUPTED = 4;
+
+    /**
+     * @param type one of {@link #BEGIN}, {@link #COMMITTED}, {@link #ABORTED} or {@link #INTERRUPTED}
+     * @param sequence transfer number; a transfer's records all share it
+     * @param timestamp milliseconds since the epoch
+     */
+    public record Entry(byte type, long sequence, long timestamp, UUID giver, UUID taker, int amount) {}
+
+    private static final String FILE_NAME = MOD_ID + ".ledger";
+    private static final int MAGIC = 0x54584C47; //"TXLG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    //type, sequence, timestamp, giver, taker, amount, checksum
+    private static final int RECORD_SIZE = 1 + Long.BYTES + Long.BYTES + 2*Long.BYTES + 2*Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    public static long commitInterval = 20L; //ticks
+
+    private static FileChannel channel = null;
+    private static long writtenLength = 0L;
+    private static boolean unsynced = false;
+    private static final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private static final ByteBuffer recordBuffer = ByteBuffer.allocate(RECORD_SIZE);
+    private static final CRC32 checksum = new CRC32();
+    private static long nextSequence = 1L;
+    private static long ticksSinceCommit = 0L;
+
+    //per-player index: offsets of the BEGIN records of every transfer the player was part of
+    private static final HashMap<UUID, LongArrayList> transfersByPlayer = new HashMap<>();
+    //sequence -> how the transfer was closed
+    private static final Long2ByteOpenHashMap outcomes = new Long2ByteOpenHashMap();
+
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STARTED.register(TradeLedger::open);
+        ServerTickEvents.END_SERVER_TICK.register(
+            (server) -> {
+                ticksSinceCommit++;
+                if(commitInterval <= ticksSinceCommit) {
+                    commit();
+                }
+            }
+        );
+        ServerLifecycleEvents.SERVER_STOPPING.register(
+            (server) -> close()
+        );
+    }
+
+    /**
+     * Writes a BEGIN record for a transfer that is about to happen.
+     *
+     * @return the transfer's sequence number, to close it with; -1 if the ledger is not open
+     */
+    public static long begin(ServerPlayerEntity giver, ServerPlayerEntity taker, int amount) {
+        if(channel == null) {
+            return -1L;
+        }
+
+        long sequence = nextSequence++;
+        long offset = writtenLength + pending.size();
+        append( new Entry(BEGIN, sequence, System.currentTimeMillis(), giver.getUuid(), taker.getUuid(), amount) );
+        index( giver.getUuid(), taker.getUuid(), offset );
+        //written ahead of the transfer, so that a crash during it is found on replay; synced with the next commit
+        try {
+            write();
+        } catch(IOException ioException) {
+            LOGGER.error("Error writing to the trade ledger.", ioException);
+        }
+        return sequence;
+    }
+
+    /**
+     * Closes a transfer opened with {@link #begin}.
+     *
+     * @param outcome {@link #COMMITTED} or {@link #ABORTED}
+     */
+    public static void end(long sequence, byte outcome, ServerPlayerEntity giver, ServerPlayerEntity taker, int amount) {
+        if(channel == null || sequence < 0L) {
+            return;
+        }
+
+        append( new Entry(outcome, sequence, System.currentTimeMillis(), giver.getUuid(), taker.getUuid(), amount) );
+        outcomes.put(sequence, outcome);
+    }
+
+    private static void index(UUID giver, UUID taker, long offset) {
+        transfersByPlayer.computeIfAbsent( giver, (key) -> new LongArrayList() ).add(offset);
+        if( !taker.equals(giver) ) {
+            transfersByPlayer.computeIfAbsent( taker, (key) -> new LongArrayList() ).add(offset);
+        }
+    }
+
+    private static void append(Entry entry) {
+        recordBuffer.clear();
+        recordBuffer
+            .put( entry.type() )
+            .putLong( entry.sequence() )
+            .putLong( entry.timestamp() )
+            .putLong( entry.giver().getMostSignificantBits() )
+            .putLong( entry.giver().getLeastSignificantBits() )
+            .putLong( entry.taker().getMostSignificantBits() )
+            .putLong( entry.taker().getLeastSignificantBits() )
+            .putInt( entry.amount() )
+        ;
+        checksum.reset();
+        checksum.update( recordBuffer.array(), 0, RECORD_SIZE - Integer.BYTES );
+        recordBuffer.putInt( (int)checksum.getValue() );
+
+        pending.write( recordBuffer.array(), 0, RECORD_SIZE );
+    }
+
+    /**
+     * @return the record, or null if it is torn or corrupt
+     */
+    private static Entry parse(byte[] record) {
+        checksum.reset();
+        checksum.update( record, 0, RECORD_SIZE - Integer.BYTES );
+
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        byte type = buffer.get();
+        long sequence = buffer.getLong();
+        long timestamp = buffer.getLong();
+        UUID giver = new UUID( buffer.getLong(), buffer.getLong() );
+        UUID taker = new UUID( buffer.getLong(), buffer.getLong() );
+        int amount = buffer.getInt();
+        if( buffer.getInt() != (int)checksum.getValue() || type < BEGIN || INTERRUPTED < type ) {
+            return null;
+        }
+        return new Entry(type, sequence, timestamp, giver, taker, amount);
+    }
+
+    /**
+     * Writes out everything appended, without syncing it.
+     */
+    private static void write() throws IOException {
+        if( pending.size() == 0 ) {
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap( pending.toByteArray() );
+        while( buffer.hasRemaining() ) {
+            channel.write(buffer);
+        }
+        writtenLength += pending.size();
+        pending.reset();
+        unsynced = true;
+    }
+
+    /**
+     * Writes out and syncs everything appended (or written) since the last commit.
+     */
+    public static void commit() {
+        ticksSinceCommit = 0L;
+        if(channel == null) {
+            return;
+        }
+
+        try {
+            write();
+            if(unsynced) {
+                channel.force(false);
+                unsynced = false;
+            }
+        } catch(IOException ioException) {
+            LOGGER.error("Error writing to the trade ledger.", ioException);
+        }
+    }
+
+    private static void open(MinecraftServer server) {
+        Path path = server.getSavePath(WorldSavePath.ROOT).resolve(FILE_NAME);
+
+        transfersByPlayer.clear();
+        outcomes.clear();
+        pending.reset();
+        unsynced = false;
+        nextSequence = 1L;
+
+        try {
+            long validLength = HEADER_SIZE; //up to the last whole record
+            int corruptRecords = 0;
+            HashMap<Long, Entry> openTransfers = new HashMap<>();
+
+            if( Files.exists(path) && HEADER_SIZE <= Files.size(path) ) {
+                try(
+                    DataInputStream input = new DataInputStream(  new BufferedInputStream( Files.newInputStream(path) )  )
+                ) {
+                    if( input.readInt() != MAGIC || input.readInt() != VERSION ) {
+                        LOGGER.error("\"{}\" is not a trade ledger; transfers will not be recorded.", path);
+                        return;
+                    }
+
+                    byte[] record = new byte[RECORD_SIZE];
+                    while(true) {
+                        try {
+                            input.readFully(record);
+                        } catch(EOFException endOfFile) {
+                            break;
+                        }
+                        Entry entry = parse(record);
+                        if(entry == null) {
+                            //records have a fixed size, so the ones after it can still be read
+                            LOGGER.warn("Skipping a corrupt record at byte {} of the trade ledger.", validLength);
+                            corruptRecords++;
+                            validLength += RECORD_SIZE;
+                            continue;
+                        }
+
+                        if( entry.type() == BEGIN ) {
+                            index( entry.giver(), entry.taker(), validLength );
+                            openTransfers.put( entry.sequence(), entry );
+                        } else {
+                            outcomes.put( entry.sequence(), entry.type() );
+                            openTransfers.remove( entry.sequence() );
+                        }
+                        nextSequence = Math.max( nextSequence, entry.sequence() + 1L );
+                        validLength += RECORD_SIZE;
+                    }
+                }
+            }
+
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if( channel.size() < HEADER_SIZE ) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+                channel.truncate(0L);
+                channel.write(header, 0L);
+            } else if( validLength < channel.size() ) {
+                //less than a record, so it can only be one that was being written when the server stopped
+                LOGGER.warn("Cutting a partial record ({} bytes) off the end of the trade ledger.", channel.size() - validLength);
+                channel.truncate(validLength);
+            }
+            if(0 < corruptRecords) {
+                LOGGER.warn("Skipped {} corrupt records in the trade ledger; the transfers they belong to may show as interrupted.", corruptRecords);
+            }
+            channel.force(true);
+            channel.position(validLength);
+            writtenLength = validLength;
+
+            for( Entry interrupted : openTransfers.values() ) {
+                LOGGER.warn(
+                    "Trade #{} ({} {} from {} to {}) was interrupted; check both players' balances.",
+                    interrupted.sequence(), interrupted.amount(), TradeExperience.experienceName, interrupted.giver(), interrupted.taker()
+                );
+                append(
+                    new Entry(
+                        INTERRUPTED, interrupted.sequence(), System.currentTimeMillis(),
+                        interrupted.giver(), interrupted.taker(), interrupted.amount()
+                    )
+                );
+                outcomes.put( interrupted.sequence(), INTERRUPTED );
+            }
+            commit();
+        } catch(IOException ioException) {
+            LOGGER.error("Error opening the trade ledger; transfers will not be recorded.", ioException);
+            close();
+        }
+    }
+
+    private static void close() {
+        if(channel == null) {
+            return;
+        }
+        commit();
+        try {
+            channel.close();
+        } catch(IOException ioException) {
+            LOGGER.error("Error closing the trade ledger.", ioException);
+        }
+        channel = null;
+    }
+
+    /**
+     * @return how the transfer was closed, or {@link #BEGIN} if it has not been (yet)
+     */
+    public static byte getOutcome(long sequence) {
+        return outcomes.getOrDefault(sequence, BEGIN);
+    }
+
+    /**
+     * @param limit maximum number of transfers to return
+     * @return the player's latest transfers (their BEGIN records), newest first
+     */
+    public static ArrayList<Entry> getTransfers(UUID player, int limit) {
+        ArrayList<Entry> transfers = new ArrayList<>();
+        LongArrayList offsets = transfersByPlayer.get(player);
+        if(channel == null || offsets == null) {
+            return transfers;
+        }
+
+        commit();
+        byte[] record = new byte[RECORD_SIZE];
+        try {
+            for(int index = offsets.size() - 1; 0 <= index && transfers.size() < limit; index--) {
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                long offset = offsets.getLong(index);
+                while( buffer.hasRemaining() ) {
+                    if( channel.read( buffer, offset + buffer.position() ) < 0 ) {
+                        throw new EOFException("Trade ledger ended early.");
+                    }
+                }
+
+                Entry entry = parse(record);
+                if(entry != null) {
+                    transfers.add(entry);
+                }
+            }
+        } catch(IOException ioException) {
+            LOGGER.error("Error reading the trade ledger.", ioException);
+        }
+        return transfers;
+    }
+}
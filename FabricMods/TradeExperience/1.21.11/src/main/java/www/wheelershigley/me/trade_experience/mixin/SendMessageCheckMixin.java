@@ -14,7 +14,6 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import www.wheelershigley.me.trade_experience.Trade;
-import www.wheelershigley.me.trade_experience.TradeExperience;
 
 import java.util.UUID;
 
@@ -36,31 +35,51 @@ public class SendMessageCheckMixin {
         }
     }
 
+    /**
+     * @return the amount, if the whole message is a (non-negative, int-sized) number; otherwise -1
+     */
     @Unique
-    private ActionResult attemptTrade(SignedMessage message, ServerPlayerEntity sender) {
-        UUID senderID = sender.getUuid();
-        if( !activeTrades.containsKey(senderID) ) {
-            return ActionResult.PASS;
+    private static int parseTradeAmount(String messageContent) {
+        int length = messageContent.length();
+        //almost all chat is rejected here, on the first character
+        if( length == 0 || !isDigit( messageContent.charAt(0) ) ) {
+            return -1;
         }
 
-        //remove old trades
-        long delta_time = sender.getEntityWorld().getTime() - activeTrades.get(senderID).getTime();
-        if(TradeExperience.cooldown < delta_time) {
-            activeTrades.remove(senderID);
-            return ActionResult.PASS;
+        long amount = 0L;
+        for(int index = 0; index < length; index++) {
+            char character = messageContent.charAt(index);
+            if( !isDigit(character) ) {
+                return -1;
+            }
+            amount = 10L * amount + (character - '0');
+            if(Integer.MAX_VALUE < amount) {
+                return -1;
+            }
         }
+        return (int)amount;
+    }
+
+    @Unique
+    private static boolean isDigit(char character) {
+        return '0' <= character && character <= '9';
+    }
 
-        String messageContent = message.getSignedContent();
+    @Unique
+    private ActionResult attemptTrade(SignedMessage message, ServerPlayerEntity sender) {
+        int amount = parseTradeAmount( message.getSignedContent() );
+        if(amount < 0 || sender == null) {
+            return ActionResult.PASS;
+        }
 
-        boolean isInteger = messageContent.matches("[0-9]+");
-        if(!isInteger) {
+        UUID senderID = sender.getUuid();
+        if( !activeTrades.containsKey(senderID) ) {
             return ActionResult.PASS;
         }
 
+        //(old trades are already gone: TradeExpiryWheel removes them on the tick they expire)
         ServerPlayerEntity receiver = server.getPlayerManager().getPlayer( activeTrades.get(senderID).getReciever() );
 
-        int amount = Integer.parseInt(messageContent);
-
         Trade.performTrade(sender, receiver, amount);
         activeTrades.remove( sender.getUuid() );
         return ActionResult.SUCCESS_SERVER;
@@ -1,5 +1,7 @@
 package me.wheelershigley.tree_in_a_forest;
 
+import me.wheelershigley.tree_in_a_forest.blacklist.Blacklist;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
 
 public class EventRegistrations {
@@ -9,5 +11,11 @@ public class EventRegistrations {
                 TreeInAForest.server = server;
             }
         );
+        ServerLifecycleEvents.SERVER_STOPPING.register(
+            (server) -> {
+                Blacklist.compact();
+                TreeInAForest.gameProfileCache.save(server);
+            }
+        );
     }
 }
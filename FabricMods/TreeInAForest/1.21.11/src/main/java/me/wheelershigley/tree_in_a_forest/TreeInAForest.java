@@ -1,20 +1,14 @@
 package me.wheelershigley.tree_in_a_forest;
 
-import me.wheelershigley.tree_in_a_forest.blacklist.Blacklist;
 import me.wheelershigley.tree_in_a_forest.command.Registrator;
+import me.wheelershigley.tree_in_a_forest.freeze.FreezeController;
+import me.wheelershigley.tree_in_a_forest.gamerules.GameRuleRegistrar;
+import me.wheelershigley.tree_in_a_forest.helpers.ProfileCache;
 import net.fabricmc.api.ModInitializer;
 import net.minecraft.server.MinecraftServer;
-import net.minecraft.server.PlayerConfigEntry;
-import net.minecraft.server.network.ServerPlayerEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.UUID;
-
-import static me.wheelershigley.tree_in_a_forest.helpers.MessagesHelper.sendConsoleInfoTranslatableMessage;
-
 /* TODO
  * Client-Server Sync (when installed on the client-side);
  *     as of now, the skybox goes back-and-forth when everyone on is blacklisted.
@@ -24,59 +18,16 @@ public class TreeInAForest implements ModInitializer {
     public static final String MOD_ID = "tree_in_a_forest";
     public static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
 
-    public static final HashMap<UUID, PlayerConfigEntry> gameProfileCache = new HashMap<>();
+    private static final int PROFILE_CACHE_CAPACITY = 1024;
+    private static final long PROFILE_CACHE_TIME_TO_LIVE = 7L * 24L * 60L * 60L * 1000L; //milliseconds
+    public static final ProfileCache gameProfileCache = new ProfileCache(PROFILE_CACHE_CAPACITY, PROFILE_CACHE_TIME_TO_LIVE);
     public static MinecraftServer server = null;
-    public static boolean serverHasOnlyBlacklistedPlayers = false;
 
     @Override
     public void onInitialize() {
+        GameRuleRegistrar.registerGameRules();
+        FreezeController.register();
         Registrator.registerCommand();
         EventRegistrations.registerPostServerStartUp();
     }
-
-    private static float tick_rate = 20.0f;
-    public static void updateServerTicking() {
-        if(server == null) {
-            return;
-        }
-
-        boolean wasTimeStoppedBefore = TreeInAForest.serverHasOnlyBlacklistedPlayers;
-        List<ServerPlayerEntity> players = server.getPlayerManager().getPlayerList();
-        TreeInAForest.serverHasOnlyBlacklistedPlayers =
-            players.isEmpty() || !doesServerHasNonBotOnline(players)
-        ;
-
-        if( players.isEmpty() ) {
-            tick_rate = server.getTickManager().getTickRate();
-            server.getTickManager().setTickRate(0.0f);
-        } else {
-            server.getTickManager().setTickRate(tick_rate);
-        }
-
-        if( TreeInAForest.serverHasOnlyBlacklistedPlayers) {
-            if(!wasTimeStoppedBefore) {
-                sendConsoleInfoTranslatableMessage(
-                    "tree_in_a_forest.text.stopping_time"
-                );
-            }
-        } else {
-            if(wasTimeStoppedBefore) {
-                sendConsoleInfoTranslatableMessage(
-                    "tree_in_a_forest.text.starting_time"
-                );
-            }
-        }
-    }
-    private static boolean doesServerHasNonBotOnline(List<ServerPlayerEntity> players) {
-        for(ServerPlayerEntity player : players) {
-            if(
-                Blacklist.configEntryBlacklist.contains( player.getPlayerConfigEntry() )
-                || Blacklist.nameBlacklist.contains( player.getName().getString() )
-            ) {
-                continue;
-            }
-            return true;
-        }
-        return false;
-    }
 }
@@ -1,28 +1,47 @@
 package me.wheelershigley.tree_in_a_forest.blacklist;
 
-import me.wheelershigley.tree_in_a_forest.helpers.ConversionsHelper;
 import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.PlayerConfigEntry;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Scanner;
+import java.util.UUID;
 
 import static me.wheelershigley.tree_in_a_forest.TreeInAForest.LOGGER;
 import static me.wheelershigley.tree_in_a_forest.TreeInAForest.MOD_ID;
+import static me.wheelershigley.tree_in_a_forest.TreeInAForest.gameProfileCache;
 import static me.wheelershigley.tree_in_a_forest.helpers.ConversionsHelper.*;
 
+/**
+ * Blacklisted players, indexed by UUID and by (lower-case) name.
+ * <p>
+ * Changes are appended to a journal file instead of rewriting the whole blacklist each time;
+ * the journal is folded back into the blacklist file once it gets long, and when the server stops.
+ */
 public class Blacklist {
-    public static ArrayList<PlayerConfigEntry> configEntryBlacklist = new ArrayList<>();
-    public static ArrayList<String> nameBlacklist = new ArrayList<>();
+    // UUID -> entry (the name may still be null, while it is being looked up)
+    public static final LinkedHashMap<UUID, PlayerConfigEntry> configEntryBlacklist = new LinkedHashMap<>();
+    // lower-case name -> name, as it was blacklisted
+    public static final LinkedHashMap<String, String> nameBlacklist = new LinkedHashMap<>();
 
     private static final String fileName = (MOD_ID + ".blacklist").toLowerCase();
     private static final File file = FabricLoader.getInstance().getConfigDir().resolve(fileName).toFile();
+    private static final File journalFile = FabricLoader.getInstance().getConfigDir().resolve(fileName + ".journal").toFile();
+
+    private static final char JOURNAL_ADD = '+';
+    private static final char JOURNAL_REMOVE = '-';
+    private static final int MAXIMUM_JOURNAL_LENGTH = 1024; //lines
+    private static int journalLength = 0;
 
     private static boolean createFileIfMissing() {
         if( file.exists() && !file.isDirectory() ) {
@@ -47,12 +66,12 @@ public class Blacklist {
         try {
             //put currently-blacklisted player-ids in file
             StringBuilder playerListBuilder = new StringBuilder();
-            for(String name : nameBlacklist) {
+            for( String name : nameBlacklist.values() ) {
                 playerListBuilder.append(name).append("\r\n");
             }
-            for(PlayerConfigEntry user : configEntryBlacklist) {
+            for( UUID id : configEntryBlacklist.keySet() ) {
                 playerListBuilder
-                    .append( user.id().toString().replace("-", "") )
+                    .append( getTrimmedUuidString(id) )
                     .append("\r\n")
                 ;
             }
@@ -66,7 +85,66 @@ public class Blacklist {
         return true;
     }
 
-    public static void initializeBlackList(boolean isOnlineMode) {
+    private static boolean appendToJournal(char change, String line) {
+        if( createFileIfMissing() ) {
+            //the new blacklist file already has the change in it
+            return true;
+        }
+
+        try {
+            PrintWriter writer = new PrintWriter( new FileWriter(journalFile, StandardCharsets.UTF_8, true) );
+            writer.write(change + line + "\r\n");
+            writer.close();
+        } catch(IOException ioException) {
+            LOGGER.error("Error writing to blacklist journal.", ioException);
+            return false;
+        }
+
+        journalLength++;
+        if(MAXIMUM_JOURNAL_LENGTH <= journalLength) {
+            return compact();
+        }
+        return true;
+    }
+
+    /**
+     * Rewrites the blacklist file from memory, and empties the journal.
+     */
+    public static boolean compact() {
+        if( !writeFile() ) {
+            return false;
+        }
+        if( journalFile.exists() && !journalFile.delete() ) {
+            LOGGER.error("Error clearing blacklist journal.");
+            return false;
+        }
+        journalLength = 0;
+        return true;
+    }
+
+    private static void readLine(String line, boolean isAddition) {
+        //names are at most 16 characters, so they can never be mistaken for a UUID
+        UUID id = getUuidFromTrimmedUuidString(line);
+        if(id != null) {
+            if(isAddition) {
+                configEntryBlacklist.putIfAbsent( id, new PlayerConfigEntry(id, null) );
+            } else {
+                configEntryBlacklist.remove(id);
+            }
+        } else {
+            if(isAddition) {
+                nameBlacklist.putIfAbsent( line.toLowerCase(Locale.ROOT), line );
+            } else {
+                nameBlacklist.remove( line.toLowerCase(Locale.ROOT) );
+            }
+        }
+    }
+
+    /**
+     * Loads the blacklist (and any journaled changes). UUIDs are added straight away (without names); in online-mode,
+     * their names are looked up in the background and filled in as they arrive, so the server does not wait on the session server.
+     */
+    public static void initializeBlackList(MinecraftServer server, boolean isOnlineMode) {
         createFileIfMissing();
 
         Scanner reader;
@@ -76,39 +154,74 @@ public class Blacklist {
             LOGGER.error("Error reading blacklist.", fileNotFoundException);
             return;
         }
-
-        String currentLine;
-        PlayerConfigEntry currentEntry;
         while( reader.hasNext() ) {
-            //TODO: convert to async
-            currentLine = reader.next();
-            currentEntry = ConversionsHelper.getPlayerConfigEntryFromUUID(
-                getUuidFromTrimmedUuidString(currentLine),
-                isOnlineMode
-            );
-
-            if(
-                currentLine.matches("[0-9a-f]{32}")
-            ) {
-                if(currentEntry != null) {
-                    Blacklist.configEntryBlacklist.add(currentEntry);
-                } else {
-                    //TODO: logging
+            readLine( reader.next(), true );
+        }
+        reader.close();
+
+        if( journalFile.exists() ) {
+            try {
+                reader = new Scanner(journalFile);
+            } catch(FileNotFoundException fileNotFoundException) {
+                LOGGER.error("Error reading blacklist journal.", fileNotFoundException);
+                return;
+            }
+            String currentLine;
+            while( reader.hasNext() ) {
+                currentLine = reader.next();
+                if( currentLine.length() < 2 ) {
+                    continue;
                 }
-            } else {
-                Blacklist.nameBlacklist.add(currentLine);
+                readLine(
+                    currentLine.substring(1),
+                    currentLine.charAt(0) == JOURNAL_ADD
+                );
+            }
+            reader.close();
+            compact();
+        }
+
+        for( UUID id : new ArrayList<>( configEntryBlacklist.keySet() ) ) {
+            PlayerConfigEntry cachedEntry = gameProfileCache.get(id);
+            if(cachedEntry != null) {
+                configEntryBlacklist.put(id, cachedEntry);
+                continue;
+            }
+            if(isOnlineMode) {
+                ProfileResolver.resolve(server, id, Blacklist::fillInResolvedEntry);
             }
         }
     }
 
-    public static String[] getBlacklistedNames() {
-        ArrayList<String> blacklistedNames = new ArrayList<>();
-        for(String name : Blacklist.nameBlacklist) {
-            blacklistedNames.add(name);
+    private static void fillInResolvedEntry(PlayerConfigEntry resolvedEntry) {
+        gameProfileCache.put(resolvedEntry);
+
+        PlayerConfigEntry entry = configEntryBlacklist.get( resolvedEntry.id() );
+        if(entry != null && entry.name() == null) {
+            configEntryBlacklist.put( resolvedEntry.id(), resolvedEntry );
         }
+    }
+
+    /**
+     * Blacklisted UUIDs may not have their names resolved yet, so entries are compared by UUID only.
+     */
+    public static boolean isBlacklisted(PlayerConfigEntry entry) {
+        return configEntryBlacklist.containsKey( entry.id() );
+    }
+
+    public static boolean isBlacklisted(String playerName) {
+        return nameBlacklist.containsKey( playerName.toLowerCase(Locale.ROOT) );
+    }
+
+    public static int size() {
+        return nameBlacklist.size() + configEntryBlacklist.size();
+    }
+
+    public static String[] getBlacklistedNames() {
+        ArrayList<String> blacklistedNames = new ArrayList<>( nameBlacklist.values() );
 
         String currentName;
-        for(PlayerConfigEntry entry : Blacklist.configEntryBlacklist) {
+        for( PlayerConfigEntry entry : Blacklist.configEntryBlacklist.values() ) {
             currentName = entry.name();
             if(currentName == null) {
                 continue;
@@ -119,44 +232,36 @@ public class Blacklist {
     }
 
     public static boolean blacklistUser(PlayerConfigEntry entry) {
-        if( configEntryBlacklist.contains(entry) ) {
+        if( isBlacklisted(entry) ) {
             return true;
         }
-        configEntryBlacklist.add(entry);
+        configEntryBlacklist.put( entry.id(), entry );
 
-        if( createFileIfMissing() ) {
-            return true;
-        }
-        return writeFile();
+        return appendToJournal( JOURNAL_ADD, getTrimmedUuidString( entry.id() ) );
     }
 
     public static boolean unblacklistUser(PlayerConfigEntry entry) {
-        configEntryBlacklist.remove(entry);
-
-        if( createFileIfMissing() ) {
+        if( configEntryBlacklist.remove( entry.id() ) == null ) {
             return true;
         }
-        return writeFile();
+
+        return appendToJournal( JOURNAL_REMOVE, getTrimmedUuidString( entry.id() ) );
     }
 
     public static boolean blacklistUser(String playerName) {
-        if( nameBlacklist.contains(playerName) ) {
+        if( isBlacklisted(playerName) ) {
             return true;
         }
-        nameBlacklist.add(playerName);
+        nameBlacklist.put( playerName.toLowerCase(Locale.ROOT), playerName );
 
-        if( createFileIfMissing() ) {
-            return true;
-        }
-        return writeFile();
+        return appendToJournal(JOURNAL_ADD, playerName);
     }
 
     public static boolean unblacklistUser(String playerName) {
-        nameBlacklist.remove(playerName);
-
-        if( createFileIfMissing() ) {
+        if( nameBlacklist.remove( playerName.toLowerCase(Locale.ROOT) ) == null ) {
             return true;
         }
-        return writeFile();
+
+        return appendToJournal(JOURNAL_REMOVE, playerName);
     }
 }
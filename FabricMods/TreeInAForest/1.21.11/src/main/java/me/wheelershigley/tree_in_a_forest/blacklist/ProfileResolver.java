@@ -0,0 +1,82 @@
+package me.wheelershigley.tree_in_a_forest.blacklist;
+
+import me.wheelershigley.tree_in_a_forest.TreeInAForest;
+import me.wheelershigley.tree_in_a_forest.helpers.ConversionsHelper;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.PlayerConfigEntry;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import static me.wheelershigley.tree_in_a_forest.TreeInAForest.LOGGER;
+
+/**
+ * Resolves player names off the server thread, so that looking up many blacklisted UUIDs does not hold up the server.
+ * Lookups run on virtual threads, at most {@value MAXIMUM_CONCURRENT_LOOKUPS} at a time; results are handed back on the server thread.
+ */
+public class ProfileResolver {
+    private static final int MAXIMUM_CONCURRENT_LOOKUPS = 4;
+    private static final int MAXIMUM_ATTEMPTS = 5;
+    private static final long FAILURE_BACKOFF = 500; //milliseconds, doubled after each failed attempt
+
+    private static final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name(TreeInAForest.MOD_ID + "-profile-lookup-", 0).factory()
+    );
+    private static final Semaphore lookupPermits = new Semaphore(MAXIMUM_CONCURRENT_LOOKUPS);
+
+    /**
+     * @param server server to hand the result back to
+     * @param uuid player to look up
+     * @param onResolved called on the server thread with the player's profile; not called if the lookup fails
+     */
+    public static void resolve(MinecraftServer server, UUID uuid, Consumer<PlayerConfigEntry> onResolved) {
+        executor.execute(
+            () -> {
+                PlayerConfigEntry entry = lookup(uuid);
+                if(entry != null) {
+                    server.execute( () -> onResolved.accept(entry) );
+                }
+            }
+        );
+    }
+
+    private static PlayerConfigEntry lookup(UUID uuid) {
+        long backoff = FAILURE_BACKOFF;
+        for(int attempt = 1; attempt <= MAXIMUM_ATTEMPTS; attempt++) {
+            long wait;
+            try {
+                lookupPermits.acquire();
+                try {
+                    return ConversionsHelper.fetchPlayerConfigEntry(uuid);
+                } finally {
+                    lookupPermits.release();
+                }
+            } catch(ConversionsHelper.RateLimitedException rateLimitedException) {
+                wait = Math.max(backoff, rateLimitedException.retryAfterMilliseconds);
+            } catch(InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch(Exception exception) {
+                if(attempt == MAXIMUM_ATTEMPTS) {
+                    LOGGER.error("An error occurred looking up a player!", exception);
+                    return null;
+                }
+                wait = backoff;
+            }
+
+            try {
+                Thread.sleep(wait);
+            } catch(InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            backoff *= 2;
+        }
+
+        LOGGER.warn("Gave up looking up player \"{}\" after {} attempts.", uuid, MAXIMUM_ATTEMPTS);
+        return null;
+    }
+}
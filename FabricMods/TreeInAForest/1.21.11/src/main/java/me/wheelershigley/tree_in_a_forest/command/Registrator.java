@@ -2,8 +2,8 @@ package me.wheelershigley.tree_in_a_forest.command;
 
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.StringArgumentType;
-import me.wheelershigley.tree_in_a_forest.TreeInAForest;
 import me.wheelershigley.tree_in_a_forest.blacklist.Blacklist;
+import me.wheelershigley.tree_in_a_forest.freeze.FreezeController;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.PlayerConfigEntry;
@@ -13,8 +13,10 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Locale;
 import java.util.function.Predicate;
 
+import static me.wheelershigley.tree_in_a_forest.TreeInAForest.gameProfileCache;
 import static me.wheelershigley.tree_in_a_forest.helpers.ConversionsHelper.*;
 import static me.wheelershigley.tree_in_a_forest.helpers.MessagesHelper.*;
 
@@ -75,7 +77,7 @@ public class Registrator {
 
             boolean success, already;
             if(playerConfig != null) {
-                already = Blacklist.configEntryBlacklist.contains(playerConfig);
+                already = Blacklist.isBlacklisted(playerConfig);
                 success = Blacklist.blacklistUser(playerConfig);
                 sendBlacklistCommandMessages(
                     already, success,
@@ -86,11 +88,11 @@ public class Registrator {
                     "tree_in_a_forest.text.blacklist_player_failure",
                     "tree_in_a_forest.text.player_blacklisted_player"
                 );
-                TreeInAForest.updateServerTicking();
+                FreezeController.recount( context.getSource().getServer(), false );
                 return 0;
             }
             if( playerName != null && !playerName.isEmpty() ) {
-                already = Blacklist.nameBlacklist.contains(playerName);
+                already = Blacklist.isBlacklisted(playerName);
                 success = Blacklist.blacklistUser(playerName);
                 sendBlacklistCommandMessages(
                     already, success,
@@ -101,7 +103,7 @@ public class Registrator {
                     "tree_in_a_forest.text.blacklist_player_failure",
                     "tree_in_a_forest.text.player_blacklisted_player"
                 );
-                TreeInAForest.updateServerTicking();
+                FreezeController.recount( context.getSource().getServer(), false );
                 return 0;
             }
 
@@ -115,7 +117,7 @@ public class Registrator {
 
             boolean success, already;
             if(playerConfig != null) {
-                already = !Blacklist.configEntryBlacklist.contains(playerConfig);
+                already = !Blacklist.isBlacklisted(playerConfig);
                 success = Blacklist.unblacklistUser(playerConfig);
                 sendBlacklistCommandMessages(
                     already, success,
@@ -126,11 +128,11 @@ public class Registrator {
                     "tree_in_a_forest.text.unblacklist_player_failure",
                     "tree_in_a_forest.text.player_unblacklisted_player"
                 );
-                TreeInAForest.updateServerTicking();
+                FreezeController.recount( context.getSource().getServer(), false );
                 return 0;
             }
             if( playerName != null && !playerName.isBlank() ) {
-                already = !Blacklist.nameBlacklist.contains(playerName);
+                already = !Blacklist.isBlacklisted(playerName);
                 success = Blacklist.unblacklistUser(playerName);
                 sendBlacklistCommandMessages(
                     already, success,
@@ -141,7 +143,7 @@ public class Registrator {
                     "tree_in_a_forest.text.unblacklist_player_failure",
                     "tree_in_a_forest.text.player_unblacklisted_player"
                 );
-                TreeInAForest.updateServerTicking();
+                FreezeController.recount( context.getSource().getServer(), false );
                 return 0;
             }
 
@@ -149,7 +151,7 @@ public class Registrator {
         };
 
         Command<ServerCommandSource> listBlacklistCommand = (context) -> {
-            int blacklisted_count = Blacklist.nameBlacklist.size() + Blacklist.configEntryBlacklist.size();
+            int blacklisted_count = Blacklist.size();
             String namesList = getCommaSeperatedBlacklistedNames();
 
             String key = ""; {
@@ -178,10 +180,37 @@ public class Registrator {
             return 0;
         };
 
+        Command<ServerCommandSource> statsCommand = (context) -> {
+            sendMessageInContext(
+                context.getSource(),
+                context.getSource().getPlayer(),
+                "tree_in_a_forest.text.freeze_stats",
+                false,
+                FreezeController.getState().name().toLowerCase(Locale.ROOT),
+                FreezeController.getTotalFrozenTime() / 1000L,
+                FreezeController.getTransitions()
+            );
+            sendMessageInContext(
+                context.getSource(),
+                context.getSource().getPlayer(),
+                "tree_in_a_forest.text.profile_cache_stats",
+                false,
+                gameProfileCache.size(),
+                gameProfileCache.getHits(),
+                gameProfileCache.getMisses(),
+                gameProfileCache.getEvictions()
+            );
+            return 0;
+        };
+
         CommandRegistrationCallback.EVENT.register(
             (dispatcher, registryAccess, environment) -> {
                 dispatcher.register(
                     CommandManager.literal("treeinaforest")
+                        .then(
+                            CommandManager.literal("stats")
+                            .executes(statsCommand)
+                        )
                         .then(
                             CommandManager.argument(
                                 "sublet",
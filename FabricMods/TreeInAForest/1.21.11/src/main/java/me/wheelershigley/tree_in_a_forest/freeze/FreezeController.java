@@ -0,0 +1,187 @@
+package me.wheelershigley.tree_in_a_forest.freeze;
+
+import me.wheelershigley.tree_in_a_forest.blacklist.Blacklist;
+import me.wheelershigley.tree_in_a_forest.gamerules.GameRuleRegistrar;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import static me.wheelershigley.tree_in_a_forest.helpers.MessagesHelper.sendConsoleInfoTranslatableMessage;
+
+/**
+ * Decides when time (and ticking) stops, from running counts of who is online instead of re-scanning the player list.
+ * <p>
+ * Unfreezing is immediate, but freezing waits for the `freeze_grace_period` game rule (in ticks),
+ * so that players relogging (e.g. during a proxy failover) do not toggle the server on and off.
+ */
+public class FreezeController {
+    public enum State {
+        RUNNING,     //a non-blacklisted player is online
+        TIME_FROZEN, //only blacklisted players are online
+        TICK_FROZEN  //no one is online
+    }
+
+    private static int playersOnline = 0;
+    private static int nonBlacklistedPlayersOnline = 0;
+
+    private static State state = State.RUNNING;
+    private static State pendingState = null;
+    private static int pendingTicks = 0;
+    private static float tickRateBeforeFreezing = 20.0f;
+
+    //metrics
+    private static long transitions = 0;
+    private static long frozenSince = -1L; //milliseconds, -1 while running
+    private static long totalFrozenTime = 0L; //milliseconds, not counting the current freeze
+
+    public static void register() {
+        ServerTickEvents.END_SERVER_TICK.register(FreezeController::tick);
+        ServerLifecycleEvents.SERVER_STOPPED.register(
+            (server) -> {
+                playersOnline = 0;
+                nonBlacklistedPlayersOnline = 0;
+                state = State.RUNNING;
+                pendingState = null;
+                frozenSince = -1L;
+            }
+        );
+    }
+
+    public static boolean isBlacklisted(ServerPlayerEntity player) {
+        return Blacklist.isBlacklisted( player.getPlayerConfigEntry() )
+            || Blacklist.isBlacklisted( player.getName().getString() )
+        ;
+    }
+
+    public static void onPlayerConnect(MinecraftServer server, ServerPlayerEntity player) {
+        playersOnline++;
+        if( !isBlacklisted(player) ) {
+            nonBlacklistedPlayersOnline++;
+        }
+        update(server, false);
+    }
+
+    public static void onPlayerDisconnect(MinecraftServer server, ServerPlayerEntity player) {
+        playersOnline = Math.max(0, playersOnline - 1);
+        if( !isBlacklisted(player) ) {
+            nonBlacklistedPlayersOnline = Math.max(0, nonBlacklistedPlayersOnline - 1);
+        }
+        update(server, false);
+    }
+
+    /**
+     * Recounts the online players; needed when the blacklist changes, as that changes who counts.
+     *
+     * @param immediately whether to skip the grace period (e.g. at startup, when no one can be relogging)
+     */
+    public static void recount(MinecraftServer server, boolean immediately) {
+        playersOnline = 0;
+        nonBlacklistedPlayersOnline = 0;
+        for( ServerPlayerEntity player : server.getPlayerManager().getPlayerList() ) {
+            playersOnline++;
+            if( !isBlacklisted(player) ) {
+                nonBlacklistedPlayersOnline++;
+            }
+        }
+        update(server, immediately);
+    }
+
+    private static State getTargetState() {
+        if(playersOnline == 0) {
+            return State.TICK_FROZEN;
+        }
+        if(nonBlacklistedPlayersOnline == 0) {
+            return State.TIME_FROZEN;
+        }
+        return State.RUNNING;
+    }
+
+    private static void update(MinecraftServer server, boolean immediately) {
+        State target = getTargetState();
+        if(target == state) {
+            pendingState = null;
+            return;
+        }
+
+        //thawing never waits
+        if( immediately || target.ordinal() < state.ordinal() ) {
+            pendingState = null;
+            transition(server, target);
+            return;
+        }
+
+        if(pendingState == null) {
+            pendingTicks = server.getOverworld().getGameRules().getValue(GameRuleRegistrar.FREEZE_GRACE_PERIOD);
+            if(pendingTicks <= 0) {
+                transition(server, target);
+                return;
+            }
+        }
+        //a grace period already counting down keeps counting; it is only the target that changes
+        pendingState = target;
+    }
+
+    private static void tick(MinecraftServer server) {
+        if(pendingState == null) {
+            return;
+        }
+        pendingTicks--;
+        if(pendingTicks <= 0) {
+            State target = pendingState;
+            pendingState = null;
+            transition(server, target);
+        }
+    }
+
+    private static void transition(MinecraftServer server, State newState) {
+        State oldState = state;
+        state = newState;
+        transitions++;
+
+        if(newState == State.TICK_FROZEN) {
+            tickRateBeforeFreezing = server.getTickManager().getTickRate();
+            server.getTickManager().setTickRate(0.0f);
+        } else if(oldState == State.TICK_FROZEN) {
+            server.getTickManager().setTickRate(tickRateBeforeFreezing);
+        }
+
+        if(oldState == State.RUNNING) {
+            frozenSince = System.currentTimeMillis();
+            sendConsoleInfoTranslatableMessage(
+                "tree_in_a_forest.text.stopping_time"
+            );
+        } else if(newState == State.RUNNING) {
+            totalFrozenTime += System.currentTimeMillis() - frozenSince;
+            frozenSince = -1L;
+            sendConsoleInfoTranslatableMessage(
+                "tree_in_a_forest.text.starting_time"
+            );
+        }
+    }
+
+    /**
+     * @return whether time is stopped (only blacklisted players, or no one, online)
+     */
+    public static boolean isTimeFrozen() {
+        return state != State.RUNNING;
+    }
+
+    public static State getState() {
+        return state;
+    }
+
+    public static long getTransitions() {
+        return transitions;
+    }
+
+    /**
+     * @return milliseconds spent frozen, including the current freeze
+     */
+    public static long getTotalFrozenTime() {
+        if(frozenSince < 0L) {
+            return totalFrozenTime;
+        }
+        return totalFrozenTime + ( System.currentTimeMillis() - frozenSince );
+    }
+}
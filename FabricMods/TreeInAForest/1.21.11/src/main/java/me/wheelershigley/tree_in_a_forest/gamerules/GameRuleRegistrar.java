@@ -0,0 +1,21 @@
+package me.wheelershigley.tree_in_a_forest.gamerules;
+
+import me.wheelershigley.tree_in_a_forest.TreeInAForest;
+import net.fabricmc.fabric.api.gamerule.v1.GameRuleBuilder;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.rule.GameRule;
+import net.minecraft.world.rule.GameRuleCategory;
+
+public class GameRuleRegistrar {
+    public static GameRule<Integer> FREEZE_GRACE_PERIOD;
+    public static void registerGameRules() {
+        FREEZE_GRACE_PERIOD = GameRuleBuilder
+            .forInteger(200)
+            .minValue(0)
+            .category(GameRuleCategory.MISC)
+            .buildAndRegister(
+                Identifier.of(TreeInAForest.MOD_ID, "freeze_grace_period")
+            )
+        ;
+    }
+}
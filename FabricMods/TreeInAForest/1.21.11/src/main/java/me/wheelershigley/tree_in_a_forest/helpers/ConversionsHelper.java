@@ -11,8 +11,8 @@ import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.BufferedReader;
+import java.net.HttpURLConnection;
 import java.net.URI;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,8 +24,8 @@ public class ConversionsHelper {
     public static PlayerConfigEntry getProfileFromPlayerName(@Nullable String name) {
         if(
             name == null
-            || !name.matches("^[a-zA-Z0-9_]{2,16}$")
-            || Blacklist.nameBlacklist.contains(name)
+            || !isValidPlayerName(name)
+            || Blacklist.isBlacklisted(name)
         ) {
             return null;
         }
@@ -40,62 +40,216 @@ public class ConversionsHelper {
 
     }
 
-    private static final StringBuilder uuidBuilder = new StringBuilder();
+    private static final int MINIMUM_NAME_LENGTH = 2;
+    private static final int MAXIMUM_NAME_LENGTH = 16;
+    /**
+     * @return whether `name` could be a player name: {@value MINIMUM_NAME_LENGTH} to {@value MAXIMUM_NAME_LENGTH} letters, digits or underscores
+     */
+    public static boolean isValidPlayerName(String name) {
+        int length = name.length();
+        if(length < MINIMUM_NAME_LENGTH || MAXIMUM_NAME_LENGTH < length) {
+            return false;
+        }
+        for(int index = 0; index < length; index++) {
+            char character = name.charAt(index);
+            if(
+                !('a' <= character && character <= 'z')
+                && !('A' <= character && character <= 'Z')
+                && !('0' <= character && character <= '9')
+                && character != '_'
+            ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * UUID conversions work on the two 64-bit halves directly, without regular expressions or shared buffers,
+     * so they are safe to use from any thread (profile lookups run off the server thread).
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final int TRIMMED_UUID_LENGTH = 32;
+    private static final int DASHED_UUID_LENGTH = 36;
+
+    /**
+     * @return the value of a hexadecimal digit (either case), or -1 if it is not one
+     */
+    private static int hexValue(char character) {
+        if('0' <= character && character <= '9') {
+            return character - '0';
+        }
+        if('a' <= character && character <= 'f') {
+            return character - 'a' + 10;
+        }
+        if('A' <= character && character <= 'F') {
+            return character - 'A' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * Parses a UUID, with or without dashes (e.g. "069a79f4-44e9-4726-a5be-fca90e38aaf5" or "069a79f444e94726a5befca90e38aaf5").
+     *
+     * @return the UUID, or null if `uuidString` is not one
+     */
+    public static UUID parseUuid(@Nullable String uuidString) {
+        if(uuidString == null) {
+            return null;
+        }
+
+        int length = uuidString.length();
+        boolean isDashed;
+        if(length == TRIMMED_UUID_LENGTH) {
+            isDashed = false;
+        } else if(length == DASHED_UUID_LENGTH) {
+            isDashed = true;
+        } else {
+            return null;
+        }
+
+        long mostSignificantBits = 0L, leastSignificantBits = 0L;
+        int digitCount = 0;
+        for(int index = 0; index < length; index++) {
+            char character = uuidString.charAt(index);
+            if( isDashed && (index == 8 || index == 13 || index == 18 || index == 23) ) {
+                if(character != '-') {
+                    return null;
+                }
+                continue;
+            }
+
+            int value = hexValue(character);
+            if(value < 0) {
+                return null;
+            }
+            if(digitCount < 16) {
+                mostSignificantBits = (mostSignificantBits << 4) | value;
+            } else {
+                leastSignificantBits = (leastSignificantBits << 4) | value;
+            }
+            digitCount++;
+        }
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * @return the UUID, or null if `pseudoUUID` is not 32 hexadecimal digits (without dashes)
+     */
     public static UUID getUuidFromTrimmedUuidString(@Nullable String pseudoUUID) {
-        if(
-            pseudoUUID == null
-            || !pseudoUUID.matches("^[0-9a-f]{32}$") ) {
+        if(pseudoUUID == null || pseudoUUID.length() != TRIMMED_UUID_LENGTH) {
             return null;
         }
+        return parseUuid(pseudoUUID);
+    }
+
+    /**
+     * Thrown when the session server asks us to slow down (HTTP 429).
+     */
+    public static class RateLimitedException extends IOException {
+        public final long retryAfterMilliseconds;
+
+        public RateLimitedException(long retryAfterMilliseconds) {
+            super("Rate-limited by the session server.");
+            this.retryAfterMilliseconds = retryAfterMilliseconds;
+        }
+    }
+
+    /**
+     * @return the UUID as 32 lower-case hexadecimal digits, without dashes
+     */
+    public static String getTrimmedUuidString(UUID uuid) {
+        char[] digits = new char[TRIMMED_UUID_LENGTH];
+        writeHexDigits( uuid.getMostSignificantBits(), digits, 0 );
+        writeHexDigits( uuid.getLeastSignificantBits(), digits, 16 );
+        return new String(digits);
+    }
 
-        uuidBuilder.setLength(0);
-        uuidBuilder
-            .append(pseudoUUID, 0, 8)
-            .append('-')
-            .append(pseudoUUID, 8, 12)
-            .append('-')
-            .append(pseudoUUID, 12, 16)
-            .append('-')
-            .append(pseudoUUID, 16, 20)
-            .append('-')
-            .append(pseudoUUID, 20, 32)
-        ;
-
-        return UUID.fromString( uuidBuilder.toString() );
+    private static void writeHexDigits(long bits, char[] digits, int offset) {
+        for(int index = 15; 0 <= index; index--) {
+            digits[offset + index] = HEX_DIGITS[ (int)(bits & 0xF) ];
+            bits >>>= 4;
+        }
     }
 
     private static final String LOOKUP_PROFILE_BASE_URL = "https://sessionserver.mojang.com/session/minecraft/profile/";
+    private static final int LOOKUP_TIMEOUT = 10_000; //milliseconds
+    private static final long DEFAULT_RETRY_AFTER = 1_000; //milliseconds
     public static PlayerConfigEntry getPlayerConfigEntryFromUUID(UUID uuid, boolean isOnlineMode) {
         if(uuid == null) {
             return null;
         }
-        if( gameProfileCache.containsKey(uuid) ) {
-            return gameProfileCache.get(uuid);
+        PlayerConfigEntry cachedEntry = gameProfileCache.get(uuid);
+        if(cachedEntry != null) {
+            return cachedEntry;
         }
 
         if(isOnlineMode) {
             try {
-                URL url = URI.create(
-                    LOOKUP_PROFILE_BASE_URL + uuid.toString()
-                ).toURL();
-                BufferedReader br = new BufferedReader(
-                    new InputStreamReader(
-                        url.openStream(),
-                        StandardCharsets.UTF_8
-                    )
-                );
-                String streamContents = br.lines().collect( Collectors.joining("\r\n") );
-                JsonObject jsonContents = JsonParser.parseString(streamContents).getAsJsonObject();
-                String name = jsonContents.get("name").getAsString();
-                if(name == null || name.isBlank() ) {
-                    return null;
+                PlayerConfigEntry entry = fetchPlayerConfigEntry(uuid);
+                if(entry != null) {
+                    gameProfileCache.put(entry);
                 }
-
-                return new PlayerConfigEntry(uuid, name);
+                return entry;
             } catch(IOException ioException) {
                 TreeInAForest.LOGGER.error("An error occurred looking up a player!", ioException);
             }
         }
         return null;
     }
+
+    /**
+     * Looks a player up on the session server. Blocks; does not touch any server state, so it is safe to call off-thread.
+     *
+     * @param uuid player to look up
+     * @return the player's profile, or null if the session server does not know them
+     * @throws RateLimitedException if the session server is rate-limiting us
+     * @throws IOException if the lookup failed otherwise (including timeouts)
+     */
+    public static PlayerConfigEntry fetchPlayerConfigEntry(UUID uuid) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection)URI.create(
+            LOOKUP_PROFILE_BASE_URL + uuid.toString()
+        ).toURL().openConnection();
+        connection.setConnectTimeout(LOOKUP_TIMEOUT);
+        connection.setReadTimeout(LOOKUP_TIMEOUT);
+
+        try {
+            int responseCode = connection.getResponseCode();
+            if(responseCode == 429) {
+                long retryAfter = DEFAULT_RETRY_AFTER;
+                String retryAfterHeader = connection.getHeaderField("Retry-After");
+                if(retryAfterHeader != null) {
+                    try {
+                        retryAfter = 1000L * Long.parseLong( retryAfterHeader.trim() );
+                    } catch(NumberFormatException ignored) {}
+                }
+                throw new RateLimitedException(retryAfter);
+            }
+            if(responseCode == HttpURLConnection.HTTP_NO_CONTENT || responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                return null;
+            }
+            if(responseCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Unexpected response from the session server: " + responseCode);
+            }
+
+            BufferedReader br = new BufferedReader(
+                new InputStreamReader(
+                    connection.getInputStream(),
+                    StandardCharsets.UTF_8
+                )
+            );
+            String streamContents = br.lines().collect( Collectors.joining("\r\n") );
+            br.close();
+            JsonObject jsonContents = JsonParser.parseString(streamContents).getAsJsonObject();
+            String name = jsonContents.get("name").getAsString();
+            if(name == null || name.isBlank() ) {
+                return null;
+            }
+
+            return new PlayerConfigEntry(uuid, name);
+        } finally {
+            connection.disconnect();
+        }
+    }
 }
@@ -0,0 +1,167 @@
+package me.wheelershigley.tree_in_a_forest.helpers;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.PlayerConfigEntry;
+import net.minecraft.util.WorldSavePath;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static me.wheelershigley.tree_in_a_forest.TreeInAForest.LOGGER;
+import static me.wheelershigley.tree_in_a_forest.TreeInAForest.MOD_ID;
+
+/**
+ * UUID -> player profile cache, so that the same players are not looked up on the session server over and over.
+ * <p>
+ * Bounded in size (least-recently-used entries are dropped first) and in age (entries expire, since names can change).
+ * The cache is saved to the world folder when the server stops, and loaded again when it starts.
+ */
+public class ProfileCache {
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final String SNAPSHOT_FILE_NAME = MOD_ID + "_profiles.dat";
+
+    private record CachedProfile(PlayerConfigEntry entry, long storedAt) {}
+
+    private final int capacity;
+    private final long timeToLive; //milliseconds
+    private final LinkedHashMap<UUID, CachedProfile> profiles;
+
+    private long hits = 0, misses = 0, evictions = 0;
+
+    public ProfileCache(int capacity, long timeToLive) {
+        this.capacity = capacity;
+        this.timeToLive = timeToLive;
+        this.profiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, CachedProfile> eldest) {
+                if(ProfileCache.this.capacity < size() ) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return the cached profile, or null if there is none (or it has expired)
+     */
+    public PlayerConfigEntry get(UUID uuid) {
+        CachedProfile cached = profiles.get(uuid);
+        if(cached == null) {
+            misses++;
+            return null;
+        }
+        if( isExpired(cached, System.currentTimeMillis()) ) {
+            profiles.remove(uuid);
+            evictions++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return cached.entry();
+    }
+
+    /**
+     * Caches a profile. Profiles without a name are ignored, as there is nothing to cache.
+     */
+    public void put(PlayerConfigEntry entry) {
+        if( entry.name() == null ) {
+            return;
+        }
+        profiles.put( entry.id(), new CachedProfile(entry, System.currentTimeMillis()) );
+    }
+
+    public int size() {
+        return profiles.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    private boolean isExpired(CachedProfile cached, long now) {
+        return timeToLive < now - cached.storedAt();
+    }
+
+    private static Path getSnapshotPath(MinecraftServer server) {
+        return server.getSavePath(WorldSavePath.ROOT).resolve(SNAPSHOT_FILE_NAME);
+    }
+
+    public void load(MinecraftServer server) {
+        Path snapshot = getSnapshotPath(server);
+        if( !Files.isRegularFile(snapshot) ) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        try(
+            DataInputStream input = new DataInputStream(  new BufferedInputStream( Files.newInputStream(snapshot) )  )
+        ) {
+            if( input.readInt() != SNAPSHOT_VERSION ) {
+                return;
+            }
+            int count = input.readInt();
+            for(int index = 0; index < count; index++) {
+                UUID id = new UUID( input.readLong(), input.readLong() );
+                long storedAt = input.readLong();
+                String name = input.readUTF();
+
+                CachedProfile cached = new CachedProfile( new PlayerConfigEntry(id, name), storedAt );
+                if( !isExpired(cached, now) ) {
+                    profiles.put(id, cached);
+                }
+            }
+        } catch(IOException ioException) {
+            LOGGER.error("Error reading the player profile cache.", ioException);
+        }
+    }
+
+    public void save(MinecraftServer server) {
+        Path snapshot = getSnapshotPath(server);
+        Path temporarySnapshot = snapshot.resolveSibling(SNAPSHOT_FILE_NAME + ".tmp");
+
+        long now = System.currentTimeMillis();
+        try {
+            //least-recently-used first, so that the order survives a reload
+            try(
+                DataOutputStream output = new DataOutputStream(  new BufferedOutputStream( Files.newOutputStream(temporarySnapshot) )  )
+            ) {
+                output.writeInt(SNAPSHOT_VERSION);
+                profiles.values().removeIf( (cached) -> isExpired(cached, now) );
+                output.writeInt( profiles.size() );
+                for( CachedProfile cached : profiles.values() ) {
+                    output.writeLong( cached.entry().id().getMostSignificantBits() );
+                    output.writeLong( cached.entry().id().getLeastSignificantBits() );
+                    output.writeLong( cached.storedAt() );
+                    output.writeUTF( cached.entry().name() );
+                }
+            }
+            Files.move(temporarySnapshot, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(IOException ioException) {
+            LOGGER.error("Error saving the player profile cache.", ioException);
+        }
+
+        LOGGER.info(
+            "Player profile cache: {} entries, {} hits, {} misses, {} evictions.",
+            profiles.size(), hits, misses, evictions
+        );
+    }
+}
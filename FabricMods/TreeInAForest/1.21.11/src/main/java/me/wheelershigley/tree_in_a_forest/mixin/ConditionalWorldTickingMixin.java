@@ -1,6 +1,6 @@
 package me.wheelershigley.tree_in_a_forest.mixin;
 
-import me.wheelershigley.tree_in_a_forest.TreeInAForest;
+import me.wheelershigley.tree_in_a_forest.freeze.FreezeController;
 import net.minecraft.registry.DynamicRegistryManager;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.registry.entry.RegistryEntry;
@@ -42,7 +42,7 @@ public abstract class ConditionalWorldTickingMixin extends World  {
     private void tickTime(CallbackInfo ci) {
         if(
             this.worldProperties.getGameRules().getValue(GameRules.ADVANCE_TIME)
-            && TreeInAForest.serverHasOnlyBlacklistedPlayers
+            && FreezeController.isTimeFrozen()
         ) {
             this.setTimeOfDay(this.properties.getTimeOfDay() - 1L);
         }
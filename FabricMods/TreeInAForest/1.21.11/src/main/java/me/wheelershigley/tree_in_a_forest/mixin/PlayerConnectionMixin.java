@@ -1,11 +1,14 @@
 package me.wheelershigley.tree_in_a_forest.mixin;
 
-import me.wheelershigley.tree_in_a_forest.TreeInAForest;
+import me.wheelershigley.tree_in_a_forest.freeze.FreezeController;
 import net.minecraft.network.ClientConnection;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.PlayerManager;
 import net.minecraft.server.network.ConnectedClientData;
 import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
@@ -14,19 +17,17 @@ import static me.wheelershigley.tree_in_a_forest.TreeInAForest.gameProfileCache;
 
 @Mixin(PlayerManager.class)
 public class PlayerConnectionMixin {
+    @Shadow @Final
+    private MinecraftServer server;
 
     @Inject(
         method = "onPlayerConnect",
         at = @At("TAIL")
     )
     public void onPlayerConnect(ClientConnection connection, ServerPlayerEntity player, ConnectedClientData clientData, CallbackInfo ci) {
-        if(  !gameProfileCache.containsKey( player.getUuid() )  ) {
-            gameProfileCache.put(
-                player.getUuid(),
-                player.getPlayerConfigEntry()
-            );
-        }
-        TreeInAForest.updateServerTicking();
+        //always re-cached, as the player's name may have changed since it was last cached
+        gameProfileCache.put( player.getPlayerConfigEntry() );
+        FreezeController.onPlayerConnect(server, player);
     }
 
     @Inject(
@@ -34,6 +35,6 @@ public class PlayerConnectionMixin {
         at = @At("TAIL")
     )
     public void remove(ServerPlayerEntity player, CallbackInfo ci) {
-        TreeInAForest.updateServerTicking();
+        FreezeController.onPlayerDisconnect(server, player);
     }
 }
@@ -2,6 +2,7 @@ package me.wheelershigley.tree_in_a_forest.mixin;
 
 import me.wheelershigley.tree_in_a_forest.TreeInAForest;
 import me.wheelershigley.tree_in_a_forest.blacklist.Blacklist;
+import me.wheelershigley.tree_in_a_forest.freeze.FreezeController;
 import net.minecraft.server.MinecraftServer;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -23,13 +24,15 @@ public abstract class StartingActionsMixin {
     private void createWorlds(
         CallbackInfo ci
     ) {
-        TreeInAForest.updateServerTicking();
-        Blacklist.initializeBlackList(onlineMode);
+        MinecraftServer server = (MinecraftServer)(Object)this;
+        TreeInAForest.gameProfileCache.load(server);
+        Blacklist.initializeBlackList(server, onlineMode);
+        FreezeController.recount(server, true);
         sendBlacklistedUsersMessage();
     }
 
     private static void sendBlacklistedUsersMessage() {
-        int blacklistSize = Blacklist.nameBlacklist.size() + Blacklist.configEntryBlacklist.size();
+        int blacklistSize = Blacklist.size();
 
         String key = "";
         String players = "";
@@ -1,11 +1,16 @@
 package me.wheelershigley.unlimited_anvil;
 
+import me.wheelershigley.unlimited_anvil.commands.Registrator;
+import me.wheelershigley.unlimited_anvil.helpers.AnvilMergeCache;
+import me.wheelershigley.unlimited_anvil.helpers.EnchantmentCompatibility;
+import me.wheelershigley.unlimited_anvil.helpers.EnchantmentsHelper;
 import net.fabricmc.api.ModInitializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class UnlimitedAnvil implements ModInitializer {
-    public static final Logger LOGGER = LoggerFactory.getLogger("unlimited_anvil");
+    public static final String MOD_ID = "unlimited_anvil";
+    public static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
 
     /* TODO
      * + remove client-side "Too Expensive" cost obstruction
@@ -13,5 +18,10 @@ public class UnlimitedAnvil implements ModInitializer {
      */
 
     @Override
-    public void onInitialize() {}
+    public void onInitialize() {
+        EnchantmentCompatibility.register();
+        AnvilMergeCache.register();
+        EnchantmentsHelper.register();
+        Registrator.registerCommands();
+    }
 }
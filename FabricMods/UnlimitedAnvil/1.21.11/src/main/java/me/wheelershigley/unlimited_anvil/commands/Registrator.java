@@ -0,0 +1,67 @@
+package me.wheelershigley.unlimited_anvil.commands;
+
+import com.mojang.brigadier.Command;
+import me.wheelershigley.unlimited_anvil.UnlimitedAnvil;
+import me.wheelershigley.unlimited_anvil.helpers.AnvilMergeCache;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+import java.util.function.Predicate;
+
+public class Registrator {
+    private static final Predicate<ServerCommandSource> isServerOrOperator = (source) -> {
+        if( !source.isExecutedByPlayer() ) {
+            return true;
+        }
+        ServerPlayerEntity sourcePlayer = source.getPlayer();
+        if(sourcePlayer == null) {
+            return false;
+        }
+
+        MinecraftServer server = sourcePlayer.getEntityWorld().getServer();
+        if(server == null) {
+            return false;
+        }
+        return server.getPlayerManager().isOperator(
+            sourcePlayer.getPlayerConfigEntry()
+        );
+    };
+
+    public static void registerCommands() {
+        Command<ServerCommandSource> statsCommand = (context) -> {
+            long hits = AnvilMergeCache.getHits();
+            long misses = AnvilMergeCache.getMisses();
+            long lookups = hits + misses;
+            context.getSource().sendFeedback(
+                () -> Text.literal(
+                    Text.translatable(
+                        "unlimited_anvil.command.text.merge_cache",
+                        Long.toString(hits),
+                        Long.toString(lookups),
+                        Long.toString( lookups == 0L ? 0L : (100L * hits) / lookups )
+                    ).getString()
+                ),
+                false
+            );
+            return 0;
+        };
+
+        CommandRegistrationCallback.EVENT.register(
+            (dispatcher, registryAccess, environment) -> {
+                dispatcher.register(
+                    CommandManager.literal( UnlimitedAnvil.MOD_ID.replace("_", "") )
+                        .requires(isServerOrOperator)
+                        .then(
+                            CommandManager
+                                .literal("stats")
+                                .executes(statsCommand)
+                        )
+                );
+            }
+        );
+    }
+}
@@ -0,0 +1,74 @@
+package me.wheelershigley.unlimited_anvil.helpers;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.minecraft.item.ItemStack;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers an anvil's last merge (repair and enchantment combining) of its two inputs, so that typing a new name
+ * does not redo the merge on every character; only the renaming (and its cost) is redone.
+ * <p>
+ * Each anvil screen has its own cache. Inputs are matched by a hash first, then compared in full, so a hit is always exact.
+ * Maximum levels and compatibilities come from tags, so every cache is invalidated when tags are (re)loaded.
+ */
+public class AnvilMergeCache {
+    /**
+     * @param result merged item (without any renaming), or null if the inputs cannot be merged
+     * @param cost level cost of the merge, before renaming
+     * @param repairItemUsage how many repair items the merge uses up
+     * @param enchantingCost {@link EnchantmentsHelper#getEnchantingCost} of the result
+     */
+    public record Merge(ItemStack result, int cost, int repairItemUsage, int enchantingCost) {}
+
+    private static final AtomicInteger generation = new AtomicInteger();
+    private static final AtomicLong hits = new AtomicLong(), misses = new AtomicLong();
+
+    private int cachedGeneration = -1;
+    private ItemStack primaryInput = ItemStack.EMPTY, secondaryInput = ItemStack.EMPTY;
+    private int primaryHash = 0, secondaryHash = 0;
+    private Merge merge = null;
+
+    public static void register() {
+        CommonLifecycleEvents.TAGS_LOADED.register(
+            (registries, client) -> generation.incrementAndGet()
+        );
+    }
+
+    /**
+     * @return the cached merge of these inputs, or null if there is none
+     */
+    public Merge get(ItemStack primaryInput, ItemStack secondaryInput) {
+        if(
+            merge != null
+            && cachedGeneration == generation.get()
+            && primaryHash == ItemStack.hashCode(primaryInput)
+            && secondaryHash == ItemStack.hashCode(secondaryInput)
+            && ItemStack.areEqual(this.primaryInput, primaryInput)
+            && ItemStack.areEqual(this.secondaryInput, secondaryInput)
+        ) {
+            hits.incrementAndGet();
+            return merge;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(ItemStack primaryInput, ItemStack secondaryInput, Merge merge) {
+        this.cachedGeneration = generation.get();
+        this.primaryInput = primaryInput.copy();
+        this.secondaryInput = secondaryInput.copy();
+        this.primaryHash = ItemStack.hashCode(primaryInput);
+        this.secondaryHash = ItemStack.hashCode(secondaryInput);
+        this.merge = merge;
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+}
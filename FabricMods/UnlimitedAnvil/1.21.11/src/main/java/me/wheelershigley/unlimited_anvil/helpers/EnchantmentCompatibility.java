@@ -0,0 +1,67 @@
+package me.wheelershigley.unlimited_anvil.helpers;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.minecraft.enchantment.Enchantment;
+import net.minecraft.registry.Registry;
+import net.minecraft.registry.entry.RegistryEntry;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Which enchantments may be combined, worked out once for every pair (forced compatibilities included) and kept as a bit-matrix
+ * indexed by raw enchantment id; the anvil then only tests bits, however many (modded) enchantments an item carries.
+ * <p>
+ * Exclusive sets are tags, so the matrices are thrown away whenever tags are (re)loaded (which also happens on joining a world,
+ * so matrices for old registries do not linger). The client and the (integrated) server have their own registries, so there is a matrix per registry.
+ */
+public class EnchantmentCompatibility {
+    private final Registry<Enchantment> registry;
+    private final long[][] compatible;
+
+    private static final Map< Registry<Enchantment>, EnchantmentCompatibility > matrices = Collections.synchronizedMap( new IdentityHashMap<>() );
+
+    public static void register() {
+        CommonLifecycleEvents.TAGS_LOADED.register(
+            (registries, client) -> matrices.clear()
+        );
+    }
+
+    public static EnchantmentCompatibility of(Registry<Enchantment> registry) {
+        return matrices.computeIfAbsent(registry, EnchantmentCompatibility::new);
+    }
+
+    private EnchantmentCompatibility(Registry<Enchantment> registry) {
+        this.registry = registry;
+
+        int enchantmentCount = registry.size();
+        this.compatible = new long[enchantmentCount][ (enchantmentCount + 63) >>> 6 ];
+        for(int first = 0; first < enchantmentCount; first++) {
+            RegistryEntry<Enchantment> firstEntry = registry.getEntry( registry.get(first) );
+            for(int second = first + 1; second < enchantmentCount; second++) {
+                RegistryEntry<Enchantment> secondEntry = registry.getEntry( registry.get(second) );
+                if( Enchantment.canBeCombined(firstEntry, secondEntry) ) {
+                    compatible[first][second >>> 6]  |= 1L << second;
+                    compatible[second][first >>> 6] |= 1L << first;
+                }
+            }
+        }
+    }
+
+    /**
+     * Same result as {@link Enchantment#canBeCombined}.
+     */
+    public boolean canBeCombined(RegistryEntry<Enchantment> first, RegistryEntry<Enchantment> second) {
+        int firstId = registry.getRawId( first.value() );
+        int secondId = registry.getRawId( second.value() );
+        if(
+            firstId < 0 || compatible.length <= firstId
+            || secondId < 0 || compatible.length <= secondId
+        ) {
+            //not from this registry (or registered since); ask directly
+            return Enchantment.canBeCombined(first, second);
+        }
+        return ( compatible[firstId][secondId >>> 6] & (1L << secondId) ) != 0L;
+    }
+}
@@ -1,22 +1,22 @@
 package me.wheelershigley.unlimited_anvil.helpers;
 
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
 import net.minecraft.component.DataComponentTypes;
 import net.minecraft.component.type.ItemEnchantmentsComponent;
 import net.minecraft.enchantment.Enchantment;
-import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.enchantment.Enchantments;
 import net.minecraft.item.ItemStack;
-import net.minecraft.registry.BuiltinRegistries;
 import net.minecraft.registry.Registry;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.registry.RegistryKeys;
 import net.minecraft.registry.entry.RegistryEntry;
-import net.minecraft.server.MinecraftServer;
-import net.minecraft.world.World;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
 public class EnchantmentsHelper {
     private static final HashMap<RegistryKey<Enchantment>, Integer> MaximumEffectiveEnchantLevels; static {
@@ -66,40 +66,67 @@ public class EnchantmentsHelper {
         MaximumEffectiveEnchantLevels.put(Enchantments.WIND_BURST,          255                );
     }
 
-    public static int getMaximumEffectiveLevel(World world, RegistryKey<Enchantment> enchantmentKey) {
-        if( MaximumEffectiveEnchantLevels.containsKey(enchantmentKey) ) {
-            return MaximumEffectiveEnchantLevels.get(enchantmentKey);
-        }
+    /*
+     * Maximum effective level of every enchantment, indexed by raw id; one table per enchantment registry (client and server each have one).
+     * Tables are built when tags (and so data-packs) are loaded, and thrown away on /reload.
+     */
+    private static final Map< Registry<Enchantment>, int[] > maximumEffectiveLevelTables = Collections.synchronizedMap( new IdentityHashMap<>() );
 
-        Optional< Registry<Enchantment> > potentialEnchantmentsRegistry = world.getRegistryManager().getOptional(RegistryKeys.ENCHANTMENT);
-        if(
-            potentialEnchantmentsRegistry.isEmpty()
-            || potentialEnchantmentsRegistry.get().get(enchantmentKey) == null
-        ) {
-            return Integer.MIN_VALUE;
-        }
+    public static void register() {
+        CommonLifecycleEvents.TAGS_LOADED.register(
+            (registries, client) -> {
+                maximumEffectiveLevelTables.clear();
+                registries.getOptional(RegistryKeys.ENCHANTMENT).ifPresent(EnchantmentsHelper::getMaximumEffectiveLevelTable);
+            }
+        );
+    }
+
+    private static int[] getMaximumEffectiveLevelTable(Registry<Enchantment> registry) {
+        return maximumEffectiveLevelTables.computeIfAbsent(
+            registry,
+            (key) -> {
+                int[] maximumLevels = new int[ registry.size() ];
+                for(int rawId = 0; rawId < maximumLevels.length; rawId++) {
+                    Enchantment enchantment = registry.get(rawId);
+                    if(enchantment == null) {
+                        maximumLevels[rawId] = Integer.MIN_VALUE;
+                        continue;
+                    }
+                    Optional< RegistryKey<Enchantment> > enchantmentKey = registry.getKey(enchantment);
+                    if( enchantmentKey.isPresent() && MaximumEffectiveEnchantLevels.containsKey( enchantmentKey.get() ) ) {
+                        maximumLevels[rawId] = MaximumEffectiveEnchantLevels.get( enchantmentKey.get() );
+                    } else {
+                        maximumLevels[rawId] = enchantment.getMaxLevel();
+                    }
+                }
+                return maximumLevels;
+            }
+        );
+    }
 
-        Enchantment registeredEnchantment = potentialEnchantmentsRegistry.get().get(enchantmentKey);
-        if(registeredEnchantment == null) {
-            return Integer.MIN_VALUE;
+    public static int getMaximumEffectiveLevel(Registry<Enchantment> registry, RegistryEntry<Enchantment> enchantment) {
+        int[] maximumLevels = getMaximumEffectiveLevelTable(registry);
+        int rawId = registry.getRawId( enchantment.value() );
+        if(rawId < 0 || maximumLevels.length <= rawId) {
+            //not from this registry (or registered since)
+            return enchantment.value().getMaxLevel();
         }
-        return registeredEnchantment.getMaxLevel();
+        return maximumLevels[rawId];
     }
 
     public static int getEnchantingCost(ItemStack enchantedItem) {
         int accumulator = 0;
 
-        Set<RegistryEntry<Enchantment>> Enchantments = EnchantmentHelper.getEnchantments(enchantedItem).getEnchantments();
-        for(RegistryEntry<Enchantment> enchant : Enchantments) {
-
-            int enchantment_cost = enchant.value().getAnvilCost();
-            int enchantment_level = getEnchantmentLevel(enchantedItem, enchant);
+        //one pass over the enchantments component, rather than fetching it again for each enchantment's level
+        for( Object2IntMap.Entry< RegistryEntry<Enchantment> > entry : getEnchantmentsComponent(enchantedItem).getEnchantmentEntries() ) {
+            int enchantment_cost = entry.getKey().value().getAnvilCost();
+            int enchantment_level = entry.getIntValue();
             accumulator += enchantment_cost * enchantment_level;
         }
         return accumulator;
     }
 
-    private static int getEnchantmentLevel(ItemStack enchantedItem, RegistryEntry<Enchantment> enchantment) {
+    private static ItemEnchantmentsComponent getEnchantmentsComponent(ItemStack enchantedItem) {
         ItemEnchantmentsComponent itemEnchantmentsComponent = ItemEnchantmentsComponent.DEFAULT;
 
         boolean usesStoredEnchantments = enchantedItem.contains(DataComponentTypes.STORED_ENCHANTMENTS);
@@ -113,6 +140,6 @@ public class EnchantmentsHelper {
             itemEnchantmentsComponent = enchantedItem.getOrDefault(DataComponentTypes.ENCHANTMENTS, ItemEnchantmentsComponent.DEFAULT);
         }
 
-        return itemEnchantmentsComponent.getLevel(enchantment);
+        return itemEnchantmentsComponent;
     }
 }
@@ -2,6 +2,8 @@ package me.wheelershigley.unlimited_anvil.mixins;
 
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import me.wheelershigley.unlimited_anvil.UnlimitedAnvil;
+import me.wheelershigley.unlimited_anvil.helpers.AnvilMergeCache;
+import me.wheelershigley.unlimited_anvil.helpers.EnchantmentCompatibility;
 import me.wheelershigley.unlimited_anvil.helpers.EnchantmentsHelper;
 import net.minecraft.block.AnvilBlock;
 import net.minecraft.block.BlockState;
@@ -13,6 +15,8 @@ import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.PlayerInventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
+import net.minecraft.registry.Registry;
+import net.minecraft.registry.RegistryKeys;
 import net.minecraft.registry.entry.RegistryEntry;
 import net.minecraft.registry.tag.BlockTags;
 import net.minecraft.screen.*;
@@ -78,7 +82,8 @@ public abstract class AnvilMixin extends ForgingScreenHandler {
 //        ItemStack secondaryInput = this.input.getStack(1);
         ItemStack output = this.output.getStack(0);
 
-        modifiedVanillaUpdateResult();
+        int enchanting_cost = modifiedVanillaUpdateResult();
+        output = this.output.getStack(0);
 //        if( output.getItem().equals(Items.AIR) ) {
 //            this.sendContentUpdates();
 //            ci.cancel();
@@ -86,7 +91,7 @@ public abstract class AnvilMixin extends ForgingScreenHandler {
 //        }
 
         //set cost as double level-cost (arbitrary "difficulty" multiplier)
-        int final_level_cost = 2*getEnchantingCost(output);
+        int final_level_cost = 2*enchanting_cost;
         boolean has_new_custom_name = (
             /*Has some custom name*/
             this.newItemName != null
@@ -110,22 +115,105 @@ public abstract class AnvilMixin extends ForgingScreenHandler {
     }
 
     @Unique
-    private void modifiedVanillaUpdateResult() {
+    private final AnvilMergeCache mergeCache = new AnvilMergeCache();
+
+    /**
+     * @return the enchanting cost (see {@link EnchantmentsHelper#getEnchantingCost}) of the output
+     */
+    @Unique
+    private int modifiedVanillaUpdateResult() {
         ItemStack primaryInput = this.input.getStack(0);
         ItemStack secondaryInput = this.input.getStack(1);
         this.keepSecondSlot = false;
         this.levelCost.set(1);
-        int i = 0;
         long cost = 0L;
         int j = 0;
         if(
             !primaryInput.isEmpty()
 //            && EnchantmentHelper.canHaveEnchantments(primaryInput)
         ) {
+            //renaming does not change the merge, so while a name is typed the merge is re-used
+            AnvilMergeCache.Merge merge = this.mergeCache.get(primaryInput, secondaryInput);
+            if(merge == null) {
+                merge = merge(primaryInput, secondaryInput);
+                this.mergeCache.put(primaryInput, secondaryInput, merge);
+            }
+
+            this.repairItemUsage = merge.repairItemUsage();
+            if( merge.result() == null ) {
+                this.output.setStack(0, ItemStack.EMPTY);
+                this.levelCost.set(0);
+                return 0;
+            }
+            ItemStack modifyablePrimaryInput = merge.result().copy();
+            int i = merge.cost();
+
+            if (this.newItemName != null && !StringHelper.isBlank(this.newItemName)) {
+                if (!this.newItemName.equals(primaryInput.getName().getString())) {
+                    j = 1;
+                    i += j;
+                    modifyablePrimaryInput.set(DataComponentTypes.CUSTOM_NAME, Text.literal(this.newItemName));
+                }
+            } else if (primaryInput.contains(DataComponentTypes.CUSTOM_NAME)) {
+                j = 1;
+                i += j;
+                modifyablePrimaryInput.remove(DataComponentTypes.CUSTOM_NAME);
+            }
+
+            int t = i <= 0 ? 0 : (int)MathHelper.clamp(cost + (long)i, 0L, 2147483647L);
+            this.levelCost.set(t);
+            if (i <= 0) {
+                modifyablePrimaryInput = ItemStack.EMPTY;
+            }
+
+            if (j == i && j > 0) {
+//                if (this.levelCost.get() >= 40) {
+//                    this.levelCost.set(39);
+//                }
+
+                this.keepSecondSlot = true;
+            }
+
+//            if (this.levelCost.get() >= 40 && !this.player.isInCreativeMode()) {
+//                itemStack2 = ItemStack.EMPTY;
+//            }
+
+//            if( !secondaryInput.isEmpty() ) {
+//                int k = (Integer)secondaryInput.getOrDefault(DataComponentTypes.REPAIR_COST, 0);
+//                if (k < (Integer)secondaryInput.getOrDefault(DataComponentTypes.REPAIR_COST, 0)) {
+//                    k = (Integer)secondaryInput.getOrDefault(DataComponentTypes.REPAIR_COST, 0);
+//                }
+
+//                if (j != i || j == 0) {
+//                    k = getNextCost(k);
+//                }
+
+//                secondaryInput.set(DataComponentTypes.REPAIR_COST, k);
+//                EnchantmentHelper.set( secondaryInput, builder.build() );
+//            }
+
+            this.output.setStack(0, modifyablePrimaryInput);
+//            this.sendContentUpdates();
+            return modifyablePrimaryInput.isEmpty() ? 0 : merge.enchantingCost();
+        } else {
+            this.output.setStack(0, ItemStack.EMPTY);
+            this.levelCost.set(0);
+            return 0;
+        }
+    }
+
+    /**
+     * Repairs and combines enchantments; everything but the renaming.
+     */
+    @Unique
+    private AnvilMergeCache.Merge merge(ItemStack primaryInput, ItemStack secondaryInput) {
+        final AnvilMergeCache.Merge noResult = new AnvilMergeCache.Merge(null, 0, 0, 0);
+        int i = 0;
+        int repairItemUsage = 0;
+        /*merge*/ {
             ItemStack modifyablePrimaryInput = primaryInput.copy();
             ItemEnchantmentsComponent.Builder builder = new ItemEnchantmentsComponent.Builder(EnchantmentHelper.getEnchantments(modifyablePrimaryInput));
 //            cost += (long)(Integer)itemStack.getOrDefault(DataComponentTypes.REPAIR_COST, 0) + (long)(Integer)itemStack3.getOrDefault(DataComponentTypes.REPAIR_COST, 0);
-            this.repairItemUsage = 0;
             if( !secondaryInput.isEmpty() ) {
                 boolean useStoredEnchants = secondaryInput.contains(DataComponentTypes.STORED_ENCHANTMENTS);
                 if(
@@ -134,9 +222,7 @@ public abstract class AnvilMixin extends ForgingScreenHandler {
                 ) {
                     int k = Math.min(modifyablePrimaryInput.getDamage(), modifyablePrimaryInput.getMaxDamage()/4);
                     if (k <= 0) {
-                        this.output.setStack(0, ItemStack.EMPTY);
-                        this.levelCost.set(0);
-                        return;
+                        return noResult;
                     }
 
                     int m;
@@ -147,7 +233,7 @@ public abstract class AnvilMixin extends ForgingScreenHandler {
                         k = Math.min(modifyablePrimaryInput.getDamage(), modifyablePrimaryInput.getMaxDamage() / 4);
                     }
 
-                    this.repairItemUsage = m;
+                    repairItemUsage = m;
                 } else {
                     if(
                         !useStoredEnchants
@@ -156,9 +242,7 @@ public abstract class AnvilMixin extends ForgingScreenHandler {
                             || !modifyablePrimaryInput.isDamageable()
                         )
                     ) {
-                        this.output.setStack(0, ItemStack.EMPTY);
-                        this.levelCost.set(0);
-                        return;
+                        return noResult;
                     }
 
                     if(modifyablePrimaryInput.isDamageable() && !useStoredEnchants) {
@@ -178,6 +262,8 @@ public abstract class AnvilMixin extends ForgingScreenHandler {
                     }
 
                     ItemEnchantmentsComponent itemEnchantmentsComponent = EnchantmentHelper.getEnchantments(secondaryInput);
+                    Registry<Enchantment> enchantmentRegistry = this.player.getEntityWorld().getRegistryManager().getOrThrow(RegistryKeys.ENCHANTMENT);
+                    EnchantmentCompatibility compatibility = EnchantmentCompatibility.of(enchantmentRegistry);
                     boolean bl2 = false;
                     boolean bl3 = false;
 
@@ -193,7 +279,7 @@ public abstract class AnvilMixin extends ForgingScreenHandler {
                         }
 
                         for(RegistryEntry<Enchantment> registryEntry2 : builder.getEnchantments()) {
-                            if (!registryEntry2.equals(registryEntry) && !Enchantment.canBeCombined(registryEntry, registryEntry2)) {
+                            if (!registryEntry2.equals(registryEntry) && !compatibility.canBeCombined(registryEntry, registryEntry2)) {
                                 isValidItemForEnchantment = false;
                                 ++i;
                             }
@@ -205,15 +291,7 @@ public abstract class AnvilMixin extends ForgingScreenHandler {
                             bl2 = true;
 
                             //Set maximum level
-                            int effective_maximum_level;
-                            if( registryEntry.getKey().isPresent() ) {
-                                effective_maximum_level = EnchantmentsHelper.getMaximumEffectiveLevel(
-                                    this.player.getEntityWorld(),
-                                    registryEntry.getKey().get()
-                                );
-                            } else {
-                                effective_maximum_level = enchantment.getMaxLevel();
-                            }
+                            int effective_maximum_level = EnchantmentsHelper.getMaximumEffectiveLevel(enchantmentRegistry, registryEntry);
                             if(effective_maximum_level < enchantmentLevel) {
                                 enchantmentLevel = effective_maximum_level;
                             }
@@ -232,63 +310,18 @@ public abstract class AnvilMixin extends ForgingScreenHandler {
                     }
 
                     if (bl3 && !bl2) {
-                        this.output.setStack(0, ItemStack.EMPTY);
-                        this.levelCost.set(0);
-                        return;
+                        return noResult;
                     }
                 }
             }
 
-            if (this.newItemName != null && !StringHelper.isBlank(this.newItemName)) {
-                if (!this.newItemName.equals(primaryInput.getName().getString())) {
-                    j = 1;
-                    i += j;
-                    modifyablePrimaryInput.set(DataComponentTypes.CUSTOM_NAME, Text.literal(this.newItemName));
-                }
-            } else if (primaryInput.contains(DataComponentTypes.CUSTOM_NAME)) {
-                j = 1;
-                i += j;
-                modifyablePrimaryInput.remove(DataComponentTypes.CUSTOM_NAME);
-            }
-
-            int t = i <= 0 ? 0 : (int)MathHelper.clamp(cost + (long)i, 0L, 2147483647L);
-            this.levelCost.set(t);
-            if (i <= 0) {
-                modifyablePrimaryInput = ItemStack.EMPTY;
-            }
-
-            if (j == i && j > 0) {
-//                if (this.levelCost.get() >= 40) {
-//                    this.levelCost.set(39);
-//                }
-
-                this.keepSecondSlot = true;
-            }
-
-//            if (this.levelCost.get() >= 40 && !this.player.isInCreativeMode()) {
-//                itemStack2 = ItemStack.EMPTY;
-//            }
-
-//            if( !secondaryInput.isEmpty() ) {
-//                int k = (Integer)secondaryInput.getOrDefault(DataComponentTypes.REPAIR_COST, 0);
-//                if (k < (Integer)secondaryInput.getOrDefault(DataComponentTypes.REPAIR_COST, 0)) {
-//                    k = (Integer)secondaryInput.getOrDefault(DataComponentTypes.REPAIR_COST, 0);
-//                }
-
-//                if (j != i || j == 0) {
-//                    k = getNextCost(k);
-//                }
-
-//                secondaryInput.set(DataComponentTypes.REPAIR_COST, k);
-//                EnchantmentHelper.set( secondaryInput, builder.build() );
-//            }
-
             EnchantmentHelper.set( modifyablePrimaryInput, builder.build() );
-            this.output.setStack(0, modifyablePrimaryInput);
-//            this.sendContentUpdates();
-        } else {
-            this.output.setStack(0, ItemStack.EMPTY);
-            this.levelCost.set(0);
+            return new AnvilMergeCache.Merge(
+                modifyablePrimaryInput,
+                i,
+                repairItemUsage,
+                getEnchantingCost(modifyablePrimaryInput)
+            );
         }
     }
 
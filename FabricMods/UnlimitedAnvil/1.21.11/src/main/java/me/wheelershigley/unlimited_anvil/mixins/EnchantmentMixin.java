@@ -8,24 +8,31 @@ import net.minecraft.util.Identifier;
 import org.spongepowered.asm.mixin.*;
 import org.spongepowered.asm.mixin.injection.At;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 
 @Mixin(
     value = Enchantment.class,
     priority = 800
 )
 public abstract class EnchantmentMixin {
+    //enchantment -> bit-mask of the forced compatibilities (groups of enchantments that may always be combined) it is part of
     @Unique
-    private static final ArrayList< ArrayList<Identifier> > ForciblyCompatibleEnchants; static {
-        ForciblyCompatibleEnchants = new ArrayList<>();
+    private static final HashMap<Identifier, Long> ForciblyCompatibleEnchants; static {
+        ForciblyCompatibleEnchants = new HashMap<>();
 
         /*Infinity + Mending*/ {
-            ArrayList<Identifier> InfinityMendingList = new ArrayList<>();
-            InfinityMendingList.add( Enchantments.MENDING.getValue() );
-            InfinityMendingList.add( Enchantments.INFINITY.getValue() );
+            long InfinityMendingGroup = 1L << 0;
+            ForciblyCompatibleEnchants.merge( Enchantments.MENDING.getValue(),  InfinityMendingGroup, (a, b) -> a | b );
+            ForciblyCompatibleEnchants.merge( Enchantments.INFINITY.getValue(), InfinityMendingGroup, (a, b) -> a | b );
+        }
+    }
 
-            ForciblyCompatibleEnchants.add(InfinityMendingList);
+    @Unique
+    private static long getForcedCompatibilityGroups(RegistryEntry<Enchantment> enchant) {
+        if( enchant.getKey().isEmpty() ) {
+            return 0L;
         }
+        return ForciblyCompatibleEnchants.getOrDefault( enchant.getKey().get().getValue(), 0L );
     }
 
     @ModifyReturnValue(
@@ -37,19 +44,10 @@ public abstract class EnchantmentMixin {
         RegistryEntry<Enchantment> FirstEnchant,
         RegistryEntry<Enchantment> SecondEnchant
     ) {
-        boolean includes_first, includes_second;
-        for(ArrayList<Identifier> ForcedCompatibility : ForciblyCompatibleEnchants) {
-            includes_first =
-                FirstEnchant.getKey().isPresent()
-                && ForcedCompatibility.contains(FirstEnchant.getKey().get().getValue() )
-            ;
-            includes_second =
-                SecondEnchant.getKey().isPresent()
-                && ForcedCompatibility.contains(SecondEnchant.getKey().get().getValue() )
-            ;
-            if(includes_first && includes_second) {
-                return true;
-            }
+        if(
+            ( getForcedCompatibilityGroups(FirstEnchant) & getForcedCompatibilityGroups(SecondEnchant) ) != 0L
+        ) {
+            return true;
         }
         return original;
     }